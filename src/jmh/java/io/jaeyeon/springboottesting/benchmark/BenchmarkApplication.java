@@ -0,0 +1,50 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.jaeyeon.springboottesting.SpringBootTestingApplication;
+
+/**
+ * 벤치마크용으로 애플리케이션을 내장 H2(MySQL 모드) 위에서 띄운다.
+ * -Dbench.datasource.url(.username / .password)을 주면 로컬 MySQL 등 실제 DB 를 대상으로 한다.
+ */
+final class BenchmarkApplication {
+
+	// Caffeine 캐시와 Hibernate 2차/쿼리 캐시를 모두 꺼서 조회가 매번 DB 까지 가게 한다.
+	static final String[] CACHE_DISABLED = {
+		"--spring.cache.type=none",
+		"--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"--spring.jpa.properties.hibernate.cache.use_query_cache=false"};
+
+	private BenchmarkApplication() {
+	}
+
+	static ConfigurableApplicationContext start(String... extraArgs) {
+		List<String> args = new ArrayList<>(List.of(
+			"--server.port=0",
+			"--spring.jpa.hibernate.ddl-auto=create-drop",
+			"--spring.jpa.properties.hibernate.show_sql=false",
+			"--spring.jpa.properties.hibernate.format_sql=false",
+			"--logging.level.root=WARN"));
+		String url = System.getProperty("bench.datasource.url");
+		if (url != null) {
+			args.addAll(List.of(
+				"--spring.datasource.url=" + url,
+				"--spring.datasource.username=" + System.getProperty("bench.datasource.username", "root"),
+				"--spring.datasource.password=" + System.getProperty("bench.datasource.password", "")));
+		} else {
+			args.addAll(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+		}
+		args.addAll(List.of(extraArgs));
+		return SpringApplication.run(SpringBootTestingApplication.class, args.toArray(String[]::new));
+	}
+}
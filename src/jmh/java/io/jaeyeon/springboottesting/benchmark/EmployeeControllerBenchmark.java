@@ -0,0 +1,89 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeService;
+
+/**
+ * MockMvc 를 통한 EmployeeController -> EmployeeService -> EmployeeRepository 전체 왕복 비용.
+ * caching=false 는 캐시를 모두 끄고 측정하므로 단건 조회가 매번 DB 까지 간다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeControllerBenchmark {
+
+	private static final int PRELOADED = 1000;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Param({"true", "false"})
+	public boolean caching;
+
+	private ConfigurableApplicationContext context;
+	private MockMvc mockMvc;
+	private long[] ids;
+
+	@Setup
+	public void setup() {
+		context = caching ? BenchmarkApplication.start() : BenchmarkApplication.start(BenchmarkApplication.CACHE_DISABLED);
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+		EmployeeService employeeService = context.getBean(EmployeeService.class);
+		ids = IntStream.range(0, PRELOADED)
+			.mapToLong(i -> employeeService.saveEmployee(Employee.builder()
+				.firstName("Jaeyeon" + i)
+				.lastName("Cho")
+				.email("preloaded" + i + "@gmail.com")
+				.build()).getId())
+			.toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public MvcResult createEmployee() throws Exception {
+		long n = sequence.incrementAndGet();
+		return mockMvc.perform(post("/api/employees")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"firstName\":\"Jaeyeon\",\"lastName\":\"Cho\",\"email\":\"bench" + n + "@gmail.com\"}"))
+			.andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getEmployeeById() throws Exception {
+		return mockMvc.perform(get("/api/employees/{id}", ids[ThreadLocalRandom.current().nextInt(ids.length)]))
+			.andReturn();
+	}
+
+	@Benchmark
+	public MvcResult getEmployees() throws Exception {
+		return mockMvc.perform(get("/api/employees").param("limit", "100"))
+			.andReturn();
+	}
+}
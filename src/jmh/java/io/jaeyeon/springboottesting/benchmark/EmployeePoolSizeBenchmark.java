@@ -0,0 +1,85 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeService;
+
+/**
+ * perf 프로필로 띄운 애플리케이션에서 커넥션 풀 크기별 읽기/쓰기 처리량과 지연 분포.
+ * 요청 스레드(64)가 풀보다 많은 상황에서 처리량이 더 이상 늘지 않는 가장 작은 풀 크기를 application-perf.properties 에 반영한다.
+ * 실제 MySQL 로 측정하려면 ./gradlew jmh -Pbench.datasource.url=jdbc:mysql://localhost:3306/ems?... 로 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class EmployeePoolSizeBenchmark {
+
+	private static final int PRELOADED = 5000;
+
+	@Param({"4", "8", "16", "32", "64"})
+	private int poolSize;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private ConfigurableApplicationContext context;
+	private EmployeeService employeeService;
+	private long maxId;
+
+	@Setup
+	public void setup() {
+		context = BenchmarkApplication.start(
+			"--spring.profiles.active=perf",
+			"--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+			"--spring.datasource.hikari.minimum-idle=" + poolSize,
+			"--spring.datasource.hikari.connection-timeout=30000");
+		employeeService = context.getBean(EmployeeService.class);
+		maxId = IntStream.range(0, PRELOADED)
+			.mapToLong(i -> employeeService.saveEmployee(newEmployee()).getId())
+			.max()
+			.orElse(0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	// 캐시를 거치지 않는 keyset 페이지 조회
+	@Benchmark
+	public List<EmployeeView> getEmployees() {
+		return employeeService.getEmployees(ThreadLocalRandom.current().nextLong(maxId), 20);
+	}
+
+	@Benchmark
+	public Employee saveEmployee() {
+		return employeeService.saveEmployee(newEmployee());
+	}
+
+	private Employee newEmployee() {
+		long n = sequence.incrementAndGet();
+		return Employee.builder()
+			.firstName("Jaeyeon" + n)
+			.lastName("Cho")
+			.email("pool" + n + "@gmail.com")
+			.build();
+	}
+}
@@ -0,0 +1,52 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.model.Employee;
+
+/**
+ * GET /api/employees 응답 본문을 만드는 Jackson 직렬화 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeSerializationBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private List<Employee> employees;
+
+	@Setup
+	public void setup() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		employees = LongStream.rangeClosed(1, size)
+			.mapToObj(id -> Employee.builder()
+				.id(id)
+				.firstName("Jaeyeon" + id)
+				.lastName("Cho")
+				.email("cjyeon" + id + "@gmail.com")
+				.build())
+			.toList();
+	}
+
+	@Benchmark
+	public byte[] serializeList() throws Exception {
+		return objectMapper.writeValueAsBytes(employees);
+	}
+}
@@ -0,0 +1,74 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeService;
+
+/**
+ * 내장 DB 를 대상으로 한 EmployeeService 의 저장/단건 조회 비용.
+ * 워밍업 뒤의 단건 조회는 모두 캐시에서 끝나므로, caching=false 로 캐시를 끈 경우와 함께 측정해 DB 경로의 비용을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeServiceBenchmark {
+
+	private static final int PRELOADED = 1000;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Param({"true", "false"})
+	public boolean caching;
+
+	private ConfigurableApplicationContext context;
+	private EmployeeService employeeService;
+	private long[] ids;
+
+	@Setup
+	public void setup() {
+		context = caching ? BenchmarkApplication.start() : BenchmarkApplication.start(BenchmarkApplication.CACHE_DISABLED);
+		employeeService = context.getBean(EmployeeService.class);
+		ids = IntStream.range(0, PRELOADED)
+			.mapToLong(i -> employeeService.saveEmployee(newEmployee()).getId())
+			.toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Employee saveEmployee() {
+		return employeeService.saveEmployee(newEmployee());
+	}
+
+	@Benchmark
+	public Object getEmployeeById() {
+		return employeeService.getEmployeeById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+	}
+
+	private Employee newEmployee() {
+		long n = sequence.incrementAndGet();
+		return Employee.builder()
+			.firstName("Jaeyeon" + n)
+			.lastName("Cho")
+			.email("bench" + n + "@gmail.com")
+			.build();
+	}
+}
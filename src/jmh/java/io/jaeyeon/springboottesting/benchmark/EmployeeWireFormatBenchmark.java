@@ -0,0 +1,74 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.jaeyeon.springboottesting.model.Employee;
+
+/**
+ * JSON / CBOR / Smile 포맷별 10k 건 목록의 인코딩, 디코딩 처리량. 포맷별 payload 크기는 setup 에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmployeeWireFormatBenchmark {
+
+	private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+	};
+
+	@Param({"json", "cbor", "smile"})
+	private String format;
+
+	@Param({"10000"})
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private List<Employee> employees;
+	private byte[] payload;
+
+	@Setup
+	public void setup() throws Exception {
+		ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+		objectMapper = switch (format) {
+			case "cbor" -> jsonMapper.copyWith(new CBORFactory());
+			case "smile" -> jsonMapper.copyWith(new SmileFactory());
+			default -> jsonMapper;
+		};
+		employees = LongStream.rangeClosed(1, size)
+			.mapToObj(id -> Employee.builder()
+				.id(id)
+				.firstName("Jaeyeon" + id)
+				.lastName("Cho")
+				.email("cjyeon" + id + "@gmail.com")
+				.build())
+			.toList();
+		payload = objectMapper.writeValueAsBytes(employees);
+		System.out.printf("%n[%s] %d employees = %d bytes%n", format, size, payload.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws Exception {
+		return objectMapper.writeValueAsBytes(employees);
+	}
+
+	@Benchmark
+	public List<Employee> decode() throws Exception {
+		return objectMapper.readValue(payload, EMPLOYEE_LIST);
+	}
+}
@@ -0,0 +1,77 @@
+package io.jaeyeon.springboottesting.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * EmployeePoolSizeBenchmark 의 JMH 결과(JSON)에서 application-perf.properties 의 풀 설정을 계산한다.
+ *
+ * <p>벤치마크(getEmployees, saveEmployee)마다 처리량이 가장 높은 풀 크기 대비 tolerance 이내인 가장 작은 풀 크기를 고르고,
+ * 둘 중 큰 값을 maximum-pool-size / minimum-idle 로, 그 2배를 max-concurrent-requests 로 쓴다.
+ *
+ * <pre>
+ * ./gradlew jmh -Pjmh.includes=EmployeePoolSizeBenchmark -Pbench.datasource.url=jdbc:mysql://...
+ * ./gradlew poolSizeRecommendation
+ * </pre>
+ */
+public final class PoolSizeRecommendation {
+
+	private static final String BENCHMARK = EmployeePoolSizeBenchmark.class.getName() + ".";
+
+	private PoolSizeRecommendation() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path results = Path.of(args[0]);
+		Path out = Path.of(args[1]);
+		double tolerance = Double.parseDouble(System.getProperty("bench.pool-size-tolerance", "0.05"));
+
+		int poolSize = recommend(new ObjectMapper().readTree(results.toFile()), tolerance);
+		Properties properties = new Properties();
+		properties.setProperty("spring.datasource.hikari.maximum-pool-size", Integer.toString(poolSize));
+		properties.setProperty("spring.datasource.hikari.minimum-idle", Integer.toString(poolSize));
+		properties.setProperty("employee.virtual-threads.max-concurrent-requests", Integer.toString(poolSize * 2));
+
+		Files.createDirectories(out.toAbsolutePath().getParent());
+		try (Writer writer = Files.newBufferedWriter(out)) {
+			properties.store(writer, "Derived from " + results + " (tolerance " + tolerance + ")");
+		}
+		properties.store(System.out, null);
+	}
+
+	static int recommend(JsonNode results, double tolerance) {
+		// 벤치마크 이름 -> (풀 크기 -> 처리량)
+		Map<String, TreeMap<Integer, Double>> throughput = new TreeMap<>();
+		for (JsonNode result : results) {
+			String benchmark = result.path("benchmark").asText();
+			if (!benchmark.startsWith(BENCHMARK) || !"thrpt".equals(result.path("mode").asText())) {
+				continue;
+			}
+			throughput.computeIfAbsent(benchmark.substring(BENCHMARK.length()), name -> new TreeMap<>())
+				.put(result.path("params").path("poolSize").asInt(), result.path("primaryMetric").path("score").asDouble());
+		}
+		if (throughput.isEmpty()) {
+			throw new IllegalArgumentException("No EmployeePoolSizeBenchmark throughput results found");
+		}
+
+		int poolSize = 0;
+		for (TreeMap<Integer, Double> scores : throughput.values()) {
+			double best = scores.values().stream().mapToDouble(Double::doubleValue).max().orElseThrow();
+			int smallest = scores.entrySet().stream()
+				.filter(score -> score.getValue() >= best * (1 - tolerance))
+				.mapToInt(Map.Entry::getKey)
+				.findFirst()
+				.orElseThrow();
+			poolSize = Math.max(poolSize, smallest);
+		}
+		return poolSize;
+	}
+}
@@ -0,0 +1,338 @@
+package io.jaeyeon.springboottesting.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeService;
+
+/**
+ * /api/employees 에 고정 요청률(open model)로 create/get/list/update/delete 를 섞어 보내고 지연시간 분포를 기록한다.
+ *
+ * <p>각 요청의 지연시간은 실제 전송 시각이 아니라 <em>예정된</em> 전송 시각부터 잰다. 서버가 멈칫하는 동안 밀린 요청도
+ * 그만큼 기다린 것으로 기록되므로 coordinated omission 이 보정된다. 보정 전 값(service time)도 함께 남긴다.
+ *
+ * <p>설정은 시스템 프로퍼티(load.*)로 받으며, p99 가 저장된 baseline 대비 허용 범위를 넘거나 오류율이 높거나
+ * baseline 이 없으면 종료 코드 1 로 끝나 Gradle 빌드를 실패시킨다. load.update-baseline=true 이면 비교하지 않고
+ * 측정값을 load.baseline-out(빌드 디렉터리)에 쓰며, 소스 트리의 baseline 은 사람이 검토한 뒤 복사해 커밋한다.
+ */
+public final class EmployeeLoadTest {
+
+	enum Operation {
+		CREATE, GET, LIST, UPDATE, DELETE
+	}
+
+	private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+	private final int rate;
+	private final Duration warmup;
+	private final Duration duration;
+	private final Map<Operation, Integer> mix;
+	private final int seedEmployees;
+	private final Path reportDir;
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_1_1)
+		.connectTimeout(REQUEST_TIMEOUT)
+		.build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final IdPool ids = new IdPool();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+	private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+
+	private String baseUrl;
+
+	EmployeeLoadTest(int rate, Duration warmup, Duration duration, Map<Operation, Integer> mix, int seedEmployees,
+		Path reportDir) {
+		this.rate = rate;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.mix = mix;
+		this.seedEmployees = seedEmployees;
+		this.reportDir = reportDir;
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+			serviceTimes.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		// check 에서 매번 실행되므로 비교할 baseline 이 없으면 부하를 걸기 전에 바로 실패한다.
+		LatencyBaseline baseline = baseline();
+		if (!Boolean.getBoolean("load.update-baseline") && !baseline.exists()) {
+			failWithoutBaseline(baseline);
+			System.exit(1);
+		}
+
+		EmployeeLoadTest loadTest = new EmployeeLoadTest(
+			Integer.getInteger("load.rate", 200),
+			Duration.parse(System.getProperty("load.warmup", "PT10S")),
+			Duration.parse(System.getProperty("load.duration", "PT30S")),
+			parseMix(System.getProperty("load.mix", "create=10,get=50,list=15,update=15,delete=10")),
+			Integer.getInteger("load.seed-employees", 1000),
+			Path.of(System.getProperty("load.report-dir", "build/reports/loadtest")));
+
+		Map<String, Long> p99Micros;
+		long total;
+		try (ConfigurableApplicationContext context = LoadTestApplication.start()) {
+			loadTest.seed(context.getBean(EmployeeService.class));
+			loadTest.baseUrl = "http://localhost:" + LoadTestApplication.port(context) + "/api/employees";
+			total = loadTest.run();
+			p99Micros = loadTest.report(System.out);
+		}
+
+		System.exit(gate(p99Micros, loadTest.errors.get(), total) ? 0 : 1);
+	}
+
+	private static boolean gate(Map<String, Long> p99Micros, long errors, long total) throws IOException {
+		boolean passed = true;
+		double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+		if (total == 0 || errors > total * maxErrorRate) {
+			System.out.printf("FAILED: %d of %d requests failed (max error rate %.2f%%)%n", errors, total, maxErrorRate * 100);
+			passed = false;
+		}
+
+		if (Boolean.getBoolean("load.update-baseline")) {
+			Path out = Path.of(System.getProperty("load.baseline-out", "build/reports/loadtest/latency-baseline.properties"));
+			new LatencyBaseline(out).store(p99Micros);
+			System.out.println("Wrote p99 baseline to " + out + "; review it and copy it over the committed baseline");
+			return passed;
+		}
+
+		LatencyBaseline baseline = baseline();
+		if (!baseline.exists()) {
+			failWithoutBaseline(baseline);
+			return false;
+		}
+
+		List<String> regressions = baseline.regressions(p99Micros,
+			Double.parseDouble(System.getProperty("load.p99-tolerance", "0.25")),
+			Duration.parse(System.getProperty("load.p99-slack", "PT0.001S")));
+		regressions.forEach(regression -> System.out.println("FAILED: " + regression));
+		return passed && regressions.isEmpty();
+	}
+
+	private static LatencyBaseline baseline() {
+		return new LatencyBaseline(Path.of(System.getProperty("load.baseline", "src/loadTest/latency-baseline.properties")));
+	}
+
+	private static void failWithoutBaseline(LatencyBaseline baseline) {
+		System.out.println("FAILED: no p99 baseline at " + baseline.path()
+			+ "; measure one with ./gradlew loadTest -Pload.update-baseline=true");
+	}
+
+	static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (String entry : mix.split(",")) {
+			String[] weight = entry.trim().split("=");
+			weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+		}
+		return weights;
+	}
+
+	private void seed(EmployeeService employeeService) {
+		for (int i = 0; i < seedEmployees; i++) {
+			long n = sequence.incrementAndGet();
+			ids.add(employeeService.saveEmployee(Employee.builder()
+				.firstName("Load" + n)
+				.lastName("Test")
+				.email("load" + n + "@gmail.com")
+				.build()).getId());
+		}
+	}
+
+	/**
+	 * warmup 동안의 기록은 버리고, duration 동안 rate 요청/초를 예정 시각에 맞춰 가상 스레드로 발사한다.
+	 *
+	 * @return 측정 구간에 보낸 요청 수
+	 */
+	private long run() throws InterruptedException {
+		fire(warmup);
+		latencies.values().forEach(Histogram::reset);
+		serviceTimes.values().forEach(Histogram::reset);
+		errors.set(0);
+		return fire(duration);
+	}
+
+	private long fire(Duration period) throws InterruptedException {
+		long intervalNanos = 1_000_000_000L / rate;
+		long requests = period.toNanos() / intervalNanos;
+		long start = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long i = 0; i < requests; i++) {
+				long intendedStart = start + i * intervalNanos;
+				long wait = intendedStart - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				Operation operation = pick();
+				executor.execute(() -> execute(operation, intendedStart));
+			}
+		}
+		return requests;
+	}
+
+	private Operation pick() {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int r = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+			r -= weight.getValue();
+			if (r < 0) {
+				return weight.getKey();
+			}
+		}
+		throw new IllegalStateException("empty mix");
+	}
+
+	private void execute(Operation operation, long intendedStart) {
+		long sentAt = System.nanoTime();
+		boolean ok;
+		try {
+			ok = switch (operation) {
+				case CREATE -> create();
+				case GET -> accept(send(HttpRequest.newBuilder(uri("/" + ids.random())).GET()), true);
+				case LIST -> accept(send(HttpRequest.newBuilder(uri("?limit=100")).GET()), false);
+				case UPDATE -> accept(send(HttpRequest.newBuilder(uri("/" + ids.random()))
+					.header("Content-Type", "application/json")
+					.PUT(HttpRequest.BodyPublishers.ofString(body()))), true);
+				case DELETE -> deleteOne();
+			};
+		} catch (IOException e) {
+			ok = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			ok = false;
+		}
+		long end = System.nanoTime();
+
+		latencies.get(operation).recordValue(Math.min((end - intendedStart) / 1000, HIGHEST_TRACKABLE_MICROS));
+		serviceTimes.get(operation).recordValue(Math.min((end - sentAt) / 1000, HIGHEST_TRACKABLE_MICROS));
+		if (!ok) {
+			errors.incrementAndGet();
+		}
+	}
+
+	private boolean create() throws IOException, InterruptedException {
+		HttpResponse<String> response = send(HttpRequest.newBuilder(uri(""))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString(body())));
+		if (response.statusCode() != 201) {
+			return false;
+		}
+		ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+		return true;
+	}
+
+	private boolean deleteOne() throws IOException, InterruptedException {
+		Long id = ids.take();
+		if (id == null) {
+			return create();
+		}
+		return accept(send(HttpRequest.newBuilder(uri("/" + id)).DELETE()), false);
+	}
+
+	// get/update 는 동시에 삭제된 id 를 고를 수 있으므로 404 는 정상 응답으로 본다.
+	private static boolean accept(HttpResponse<String> response, boolean notFoundAllowed) {
+		int status = response.statusCode();
+		return status / 100 == 2 || (notFoundAllowed && status == 404);
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+		return httpClient.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create(baseUrl + path);
+	}
+
+	private String body() {
+		long n = sequence.incrementAndGet();
+		return "{\"firstName\":\"Load" + n + "\",\"lastName\":\"Test\",\"email\":\"load" + n + "@gmail.com\"}";
+	}
+
+	/**
+	 * 작업별 백분위를 출력하고 .hgrm 파일(HdrHistogram 플로터 입력 형식, ms 단위)을 reportDir 에 쓴다.
+	 *
+	 * @return 작업별 p99(마이크로초)
+	 */
+	private Map<String, Long> report(PrintStream out) throws IOException {
+		Files.createDirectories(reportDir);
+		out.printf("%d req/s for %s (after %s warmup), mix %s%n", rate, duration, warmup, mix);
+		out.printf("%-7s %8s %9s %9s %9s %9s %9s %14s%n",
+			"op", "count", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "svc p99(ms)");
+
+		Map<String, Long> p99Micros = new LinkedHashMap<>();
+		for (Operation operation : mix.keySet()) {
+			Histogram latency = latencies.get(operation);
+			if (latency.getTotalCount() == 0) {
+				continue;
+			}
+			out.printf("%-7s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %14.2f%n",
+				operation.name().toLowerCase(), latency.getTotalCount(),
+				latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+				latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+				latency.getMaxValue() / 1000.0, serviceTimes.get(operation).getValueAtPercentile(99) / 1000.0);
+			p99Micros.put(operation.name().toLowerCase(), latency.getValueAtPercentile(99));
+
+			try (PrintStream hgrm = new PrintStream(Files.newOutputStream(
+				reportDir.resolve(operation.name().toLowerCase() + ".hgrm")))) {
+				latency.outputPercentileDistribution(hgrm, 1000.0);
+			}
+		}
+		out.printf("errors: %d%n", errors.get());
+		return p99Micros;
+	}
+
+	/**
+	 * 살아 있는 직원 id 목록. 무작위 조회와 무작위 제거가 모두 O(1) 이어야 해서 swap-remove 리스트를 쓴다.
+	 */
+	private static final class IdPool {
+
+		private final List<Long> ids = new ArrayList<>();
+
+		synchronized void add(long id) {
+			ids.add(id);
+		}
+
+		synchronized long random() {
+			return ids.isEmpty() ? 0L : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+		}
+
+		synchronized Long take() {
+			if (ids.isEmpty()) {
+				return null;
+			}
+			int index = ThreadLocalRandom.current().nextInt(ids.size());
+			Long id = ids.get(index);
+			ids.set(index, ids.get(ids.size() - 1));
+			ids.remove(ids.size() - 1);
+			return id;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package io.jaeyeon.springboottesting.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 작업별 p99(마이크로초)를 저장해 두고, 새 측정값이 허용 범위를 넘었는지 비교한다.
+ * 허용 범위 = baseline * (1 + tolerance) + slack. slack 은 1ms 미만 구간의 측정 잡음을 흡수한다.
+ */
+final class LatencyBaseline {
+
+	private static final String SUFFIX = ".p99.micros";
+
+	private final Path path;
+
+	LatencyBaseline(Path path) {
+		this.path = path;
+	}
+
+	Path path() {
+		return path;
+	}
+
+	boolean exists() {
+		return Files.exists(path);
+	}
+
+	void store(Map<String, Long> p99Micros) throws IOException {
+		Properties properties = new Properties();
+		p99Micros.forEach((operation, micros) -> properties.setProperty(operation + SUFFIX, Long.toString(micros)));
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		try (Writer writer = Files.newBufferedWriter(path)) {
+			properties.store(writer, "p99 latency baseline for /api/employees (./gradlew loadTest -Pload.update-baseline=true)");
+		}
+	}
+
+	/**
+	 * @return 허용 범위를 넘은 작업에 대한 설명, 없으면 빈 목록
+	 */
+	List<String> regressions(Map<String, Long> p99Micros, double tolerance, Duration slack) throws IOException {
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(path)) {
+			properties.load(reader);
+		}
+
+		List<String> regressions = new ArrayList<>();
+		p99Micros.forEach((operation, micros) -> {
+			String baseline = properties.getProperty(operation + SUFFIX);
+			if (baseline == null) {
+				return;
+			}
+			long allowed = (long)(Long.parseLong(baseline) * (1 + tolerance)) + slack.toNanos() / 1000;
+			if (micros > allowed) {
+				regressions.add(String.format("%s p99 %.2fms > allowed %.2fms (baseline %.2fms)",
+					operation, micros / 1000.0, allowed / 1000.0, Long.parseLong(baseline) / 1000.0));
+			}
+		});
+		return regressions;
+	}
+}
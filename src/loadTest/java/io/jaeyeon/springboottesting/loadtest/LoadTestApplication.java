@@ -0,0 +1,38 @@
+package io.jaeyeon.springboottesting.loadtest;
+
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.jaeyeon.springboottesting.SpringBootTestingApplication;
+
+/**
+ * 부하 테스트 대상 애플리케이션을 임의 포트 + 내장 H2(MySQL 모드) 위에서 띄운다.
+ * 네트워크 서비스 없이 실행되어야 하므로 외부 DB 는 지원하지 않는다.
+ */
+final class LoadTestApplication {
+
+	private LoadTestApplication() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		List<String> args = List.of(
+			"--server.port=0",
+			"--spring.datasource.url=jdbc:h2:mem:load-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+			"--spring.datasource.driver-class-name=org.h2.Driver",
+			"--spring.datasource.username=sa",
+			"--spring.datasource.password=",
+			"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+			"--spring.jpa.hibernate.ddl-auto=create-drop",
+			"--spring.jpa.properties.hibernate.show_sql=false",
+			"--spring.jpa.properties.hibernate.format_sql=false",
+			"--logging.level.root=WARN");
+		return SpringApplication.run(SpringBootTestingApplication.class, args.toArray(String[]::new));
+	}
+
+	static int port(ConfigurableApplicationContext context) {
+		return ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+}
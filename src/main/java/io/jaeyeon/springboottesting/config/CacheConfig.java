@@ -0,0 +1,41 @@
+package io.jaeyeon.springboottesting.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 직원 조회 캐시 설정. 캐시 크기, TTL 은 application.properties 의 spring.cache.caffeine.spec 으로 조정한다.
+ * 캐시 advice 를 트랜잭션 바깥에 두어 커밋이 끝난 뒤에 캐시를 갱신/무효화하고, 무효화 전에 시작된 조회의 결과는
+ * {@link EvictionGuardedCache} 가 캐시에 넣지 않는다.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig implements CachingConfigurer {
+
+	public static final String EMPLOYEES = "employees";
+	public static final String EMPLOYEES_BY_EMAIL = "employeesByEmail";
+
+	private final EvictionGuardedCacheResolver cacheResolver;
+
+	public CacheConfig(ObjectProvider<CacheManager> cacheManager) {
+		this.cacheResolver = new EvictionGuardedCacheResolver(cacheManager);
+	}
+
+	@Override
+	public CacheResolver cacheResolver() {
+		return cacheResolver;
+	}
+
+	/**
+	 * 캐시 advice 를 거치지 않는 쓰기(R2DBC)가 무효화할 때 쓴다. 조회와 같은 데코레이터를 거쳐야 무효화 세대가 맞는다.
+	 */
+	public Cache getCache(String name) {
+		return cacheResolver.getCache(name);
+	}
+}
@@ -0,0 +1,67 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 가상 스레드 모드에서는 Tomcat 스레드 풀이 동시 요청 수를 제한하지 않으므로,
+ * /api 요청의 동시 실행 수를 커넥션 풀 크기에 맞춰 제한하고 대기 시간을 넘기면 503 으로 응답한다.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final Semaphore permits;
+	private final Duration acquireTimeout;
+
+	public DatabaseConcurrencyLimitFilter(
+		@Value("${employee.virtual-threads.max-concurrent-requests:40}") int maxConcurrentRequests,
+		@Value("${employee.virtual-threads.acquire-timeout:1s}") Duration acquireTimeout) {
+		this.permits = new Semaphore(maxConcurrentRequests, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+		throws ServletException, IOException {
+
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+
+		if (!acquired) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			permits.release();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package io.jaeyeon.springboottesting.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.jaeyeon.springboottesting.model.EmployeeIdGenerator;
+
+/**
+ * Hibernate 가 만드는 {@link EmployeeIdGenerator} 에 employee.id.worker-id 를 hibernate 설정으로 넘겨준다.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(EmployeeIdProperties.class)
+public class EmployeeIdConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer employeeIdHibernatePropertiesCustomizer(EmployeeIdProperties properties) {
+		return hibernateProperties -> hibernateProperties.put(EmployeeIdGenerator.WORKER_ID_SETTING, properties.workerId());
+	}
+}
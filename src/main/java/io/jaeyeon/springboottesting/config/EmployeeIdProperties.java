@@ -0,0 +1,31 @@
+package io.jaeyeon.springboottesting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import io.jaeyeon.springboottesting.model.EmployeeIdGenerator;
+
+/**
+ * {@link EmployeeIdGenerator} 의 worker 설정. 인스턴스가 하나면 worker 0 을 쓰고, 여럿이면 인스턴스마다 다른 workerId 를
+ * 지정해야 한다. 같은 worker 로 뜬 두 인스턴스는 같은 id 를 만들므로 지정하지 않으면 시작에 실패한다.
+ *
+ * @param workerId 0 부터 {@link EmployeeIdGenerator#MAX_WORKERS} - 1 까지
+ * @param instances 같은 데이터베이스에 쓰는 인스턴스 수
+ */
+@ConfigurationProperties("employee.id")
+public record EmployeeIdProperties(Integer workerId, @DefaultValue("1") int instances) {
+
+	public EmployeeIdProperties {
+		if (instances < 1 || instances > EmployeeIdGenerator.MAX_WORKERS) {
+			throw new IllegalArgumentException(
+				"employee.id.instances must be between 1 and " + EmployeeIdGenerator.MAX_WORKERS);
+		}
+		if (workerId == null) {
+			if (instances > 1) {
+				throw new IllegalArgumentException("employee.id.worker-id is not set for one of " + instances
+					+ " instances; set it to a value unique to each instance");
+			}
+			workerId = 0;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+
+/**
+ * 조회가 시작된 뒤 무효화(evict / clear)가 한 번이라도 있었으면 그 조회 결과를 캐시에 넣지 않는 Cache 데코레이터.
+ * 무효화 직전에 DB 에서 읽기 시작한 조회가 무효화 뒤에 끝나면서 이전 값을 다시 캐시하는 경쟁을 막는다.
+ *
+ * <p>조회 결과로 캐시를 채우는 {@link #get(Object, Callable)}(@Cacheable(sync = true))에만 적용된다. 로드는 delegate 에
+ * 맡겨 같은 key 의 동시 조회를 하나로 합치고, 로드가 끝난 뒤 그 사이에 무효화가 있었거나 결과가 null 이면 방금 넣은 값을 다시 지운다.
+ */
+class EvictionGuardedCache implements Cache {
+
+	private final Cache delegate;
+	// 무효화할 때마다 1씩 증가한다(this 로 보호).
+	private long generation;
+
+	EvictionGuardedCache(Cache delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return delegate.get(key, type);
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		long started;
+		synchronized (this) {
+			started = generation;
+		}
+		// 같은 key 의 동시 조회는 delegate(Caffeine) 의 key 단위 락으로 한 번만 로드된다(@Cacheable(sync = true)).
+		T value = delegate.get(key, valueLoader);
+		if (value == null) {
+			delegate.evict(key);
+			return null;
+		}
+		synchronized (this) {
+			if (generation != started) {
+				delegate.evict(key);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		delegate.put(key, value);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		return delegate.putIfAbsent(key, value);
+	}
+
+	@Override
+	public synchronized void evict(Object key) {
+		generation++;
+		delegate.evict(key);
+	}
+
+	@Override
+	public synchronized boolean evictIfPresent(Object key) {
+		generation++;
+		return delegate.evictIfPresent(key);
+	}
+
+	@Override
+	public synchronized void clear() {
+		generation++;
+		delegate.clear();
+	}
+
+	@Override
+	public synchronized boolean invalidate() {
+		generation++;
+		return delegate.invalidate();
+	}
+}
@@ -0,0 +1,44 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+/**
+ * CacheManager 의 캐시를 {@link EvictionGuardedCache} 로 감싸서 돌려준다. 조회와 무효화가 같은 데코레이터를 거쳐야
+ * 무효화 세대를 비교할 수 있으므로 캐시마다 하나의 데코레이터를 재사용한다.
+ */
+class EvictionGuardedCacheResolver implements CacheResolver {
+
+	private final ObjectProvider<CacheManager> cacheManager;
+	private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+	EvictionGuardedCacheResolver(ObjectProvider<CacheManager> cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	@Override
+	public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+		return context.getOperation().getCacheNames().stream()
+			.map(this::getCache)
+			.toList();
+	}
+
+	Cache getCache(String name) {
+		return caches.computeIfAbsent(name, this::guarded);
+	}
+
+	private Cache guarded(String name) {
+		Cache cache = cacheManager.getObject().getCache(name);
+		if (cache == null) {
+			throw new IllegalArgumentException("Cannot find cache named '" + name + "'");
+		}
+		return new EvictionGuardedCache(cache);
+	}
+}
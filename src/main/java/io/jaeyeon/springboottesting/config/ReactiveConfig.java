@@ -0,0 +1,30 @@
+package io.jaeyeon.springboottesting.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * reactive 프로필에서만 R2DBC 커넥션 팩토리(spring.r2dbc.*)를 사용한다.
+ * JPA 트랜잭션 매니저와 충돌하지 않도록 R2DBC 트랜잭션 매니저는 빈으로 등록하지 않고,
+ * R2DBC 쓰기는 그 매니저로 만든 TransactionalOperator 로 트랜잭션을 연다.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+	@Bean
+	public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+		return DatabaseClient.create(connectionFactory);
+	}
+
+	@Bean
+	public TransactionalOperator r2dbcTransactionalOperator(ConnectionFactory connectionFactory) {
+		return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+	}
+}
@@ -0,0 +1,75 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 복제본이 설정되어 있으면 spring.datasource.* 를 primary 로, employee.datasource.replicas 를 읽기 전용 풀로 묶은
+ * {@link ReadWriteRoutingDataSource} 를 유일한 DataSource 빈으로 등록한다. 모든 풀은 spring.datasource.hikari.* 설정을 공유한다.
+ * 개별 풀은 빈이 아니므로 풀 지표는 Hikari 의 Micrometer 연동으로 pool 이름별(hikaricp.*)로 남긴다.
+ * /api 요청은 {@link ReplicaPinningFilter} 로 요청마다 한 복제본에서만 읽는다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "employee.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadWriteRoutingConfig {
+
+	@Bean
+	public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+		ReplicaDataSourceProperties replicaProperties, Environment environment,
+		ObjectProvider<MeterRegistry> meterRegistry) {
+
+		HikariDataSource primary = pool("primary", dataSourceProperties.determineUrl(),
+			dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+			dataSourceProperties.determineDriverClassName(), environment, meterRegistry);
+
+		List<DataSource> replicas = new ArrayList<>();
+		for (int i = 0; i < replicaProperties.replicas().size(); i++) {
+			ReplicaDataSourceProperties.Replica replica = replicaProperties.replicas().get(i);
+			HikariDataSource pool = pool("replica-" + i, replica.url(),
+				replica.username() != null ? replica.username() : dataSourceProperties.determineUsername(),
+				replica.password() != null ? replica.password() : dataSourceProperties.determinePassword(),
+				dataSourceProperties.determineDriverClassName(), environment, meterRegistry);
+			pool.setReadOnly(true);
+			replicas.add(pool);
+		}
+
+		return new ReadWriteRoutingDataSource(primary, replicas, replicaProperties.selection(),
+			replicaProperties.maxLag(), replicaProperties.lagCheckInterval());
+	}
+
+	@Bean
+	public ReplicaPinningFilter replicaPinningFilter() {
+		return new ReplicaPinningFilter();
+	}
+
+	static HikariDataSource pool(String name, String url, String username, String password, String driverClassName,
+		Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+		HikariDataSource pool = new HikariDataSource();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+		pool.setPoolName(name);
+		pool.setJdbcUrl(url);
+		pool.setUsername(username);
+		pool.setPassword(password);
+		pool.setDriverClassName(driverClassName);
+		meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+		return pool;
+	}
+}
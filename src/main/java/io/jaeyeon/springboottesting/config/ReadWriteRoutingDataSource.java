@@ -0,0 +1,330 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.jaeyeon.springboottesting.model.EmployeeTableVersion;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본으로, 나머지는 primary 로 보내는 DataSource.
+ *
+ * <p>JPA 트랜잭션은 read-only 여부가 정해지기 전에 커넥션을 얻으므로, 실제 커넥션은 첫 SQL 실행 시점에
+ * 고르도록 {@link LazyConnectionDataSourceProxy} 로 감싼다.
+ *
+ * <p>복제 지연은 DB 종류와 무관하게 employee_table_version 카운터로 잰다. 주기적으로 primary 의 카운터 값과 처음 본 시각을
+ * 기록해 두고, 복제본이 아직 반영하지 못한 가장 오래된 값을 본 뒤 지난 시간을 그 복제본의 지연으로 본다.
+ * 지연이 maxLag 를 넘었거나 접속할 수 없는 복제본은 건너뛰며, 쓸 수 있는 복제본이 없으면 primary 에서 읽는다.
+ *
+ * <p>{@link #pin()} 범위 안에서는 처음 고른 복제본을 계속 쓴다. 목록의 ETag(테이블 버전)와 본문처럼 한 요청에서 따로 읽는 값이
+ * 지연이 다른 복제본에서 오면 ETag 보다 오래된 본문이 그 ETag 로 캐시될 수 있기 때문이다. 요청이 다른 스레드에 넘기는
+ * 작업(스트리밍 응답, long-poll 후속 조회, 병렬 조회)은 {@link #currentPin()} 으로 범위를 잡아 {@link #runWithin} /
+ * {@link #callWithin} 으로 실행해야 같은 복제본을 쓴다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+	public enum Selection {
+		ROUND_ROBIN, LEAST_CONNECTIONS
+	}
+
+	private static final String PRIMARY = "primary";
+	// 현재 스레드가 속한 pin 범위. 범위 밖이면 null 이다.
+	private static final ThreadLocal<PinScope> PINNED = new ThreadLocal<>();
+	private static final String VERSION_QUERY =
+		"select version from employee_table_version where id = " + EmployeeTableVersion.ROW_ID;
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final Selection selection;
+	private final long maxLagNanos;
+	private final AtomicInteger next = new AtomicInteger();
+	// primary 에서 관측한 (카운터 값, 처음 본 시각). 지연 측정 스레드에서만 접근한다.
+	private final Deque<long[]> primaryVersions = new ArrayDeque<>();
+	private final ScheduledExecutorService lagChecker;
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection, Duration maxLag,
+		Duration lagCheckInterval) {
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.selection = selection;
+		this.maxLagNanos = maxLag.toNanos();
+
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(i, replicas.get(i));
+		}
+		Router router = new Router();
+		router.setTargetDataSources(targets);
+		router.setDefaultTargetDataSource(primary);
+		router.afterPropertiesSet();
+		setTargetDataSource(router);
+
+		if (lagCheckInterval.isPositive()) {
+			lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "replica-lag-checker");
+				thread.setDaemon(true);
+				return thread;
+			});
+			lagChecker.scheduleWithFixedDelay(this::checkReplicaLag, 0, lagCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+		} else {
+			lagChecker = null;
+		}
+	}
+
+	/**
+	 * 닫을 때까지 현재 스레드의 읽기 전용 트랜잭션이 처음 고른 읽기 대상을 계속 쓰게 한다. 이미 범위 안이면 바깥 범위를 따른다.
+	 * 고정한 복제본을 더 이상 쓸 수 없게 되면, 더 오래된 복제본으로 옮겨 가지 않도록 primary 에서 읽는다.
+	 */
+	public static Pin pin() {
+		if (PINNED.get() != null) {
+			return () -> {
+			};
+		}
+		PINNED.set(new PinScope(null));
+		return PINNED::remove;
+	}
+
+	/**
+	 * @return 현재 스레드의 pin 범위. 범위 밖이면 null
+	 */
+	public static PinScope currentPin() {
+		return PINNED.get();
+	}
+
+	/**
+	 * 다른 스레드에서 pin 범위 pin 에 참여해 task 를 실행한다. 같은 범위의 스레드들은 처음 고른 읽기 대상을 함께 쓴다.
+	 * pin 이 null 이면 범위 없이 실행한다.
+	 */
+	public static <T> T callWithin(PinScope pin, Supplier<T> task) {
+		PinScope previous = PINNED.get();
+		if (pin == null) {
+			PINNED.remove();
+		} else {
+			PINNED.set(pin);
+		}
+		try {
+			return task.get();
+		} finally {
+			if (previous == null) {
+				PINNED.remove();
+			} else {
+				PINNED.set(previous);
+			}
+		}
+	}
+
+	public static void runWithin(PinScope pin, Runnable task) {
+		callWithin(pin, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * @return 현재 읽기를 받을 수 있는 복제본 수
+	 */
+	public int getAvailableReplicaCount() {
+		return (int)replicas.stream().filter(this::isAvailable).count();
+	}
+
+	synchronized void checkReplicaLag() {
+		long now = System.nanoTime();
+		try {
+			long primaryVersion = version(primary);
+			if (primaryVersions.isEmpty() || primaryVersions.peekLast()[0] < primaryVersion) {
+				primaryVersions.addLast(new long[] {primaryVersion, now});
+			}
+		} catch (SQLException e) {
+			log.warn("Could not read the table version from the primary datasource", e);
+			return;
+		}
+
+		long oldestApplied = Long.MAX_VALUE;
+		for (Replica replica : replicas) {
+			try {
+				long applied = version(replica.dataSource);
+				replica.lagNanos = primaryVersions.stream()
+					.filter(sample -> sample[0] > applied)
+					.findFirst()
+					.map(sample -> now - sample[1])
+					.orElse(0L);
+				replica.reachable = true;
+				oldestApplied = Math.min(oldestApplied, applied);
+			} catch (SQLException e) {
+				if (replica.reachable) {
+					log.warn("Replica datasource is unreachable, reads fall back to the remaining replicas or primary", e);
+				}
+				replica.reachable = false;
+			}
+		}
+
+		// 모든 복제본이 반영한 값은 더 이상 필요 없다. 마지막 값은 다음 비교를 위해 남긴다.
+		while (primaryVersions.size() > 1 && primaryVersions.peekFirst()[0] <= oldestApplied) {
+			primaryVersions.removeFirst();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (lagChecker != null) {
+			lagChecker.shutdownNow();
+		}
+		closeIfPossible(primary);
+		replicas.forEach(replica -> closeIfPossible(replica.dataSource));
+	}
+
+	private Object lookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY;
+		}
+		PinScope pinned = PINNED.get();
+		if (pinned == null) {
+			return readTarget();
+		}
+		Object target = pinned.target.get();
+		if (target == null) {
+			Object chosen = readTarget();
+			target = pinned.target.compareAndExchange(null, chosen);
+			return target == null ? chosen : target;
+		}
+		if (target instanceof Integer replica && !isAvailable(replicas.get(replica))) {
+			pinned.target.compareAndSet(target, PRIMARY);
+			return pinned.target.get();
+		}
+		return target;
+	}
+
+	private Object readTarget() {
+		List<Integer> candidates = new ArrayList<>(replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			if (isAvailable(replicas.get(i))) {
+				candidates.add(i);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return PRIMARY;
+		}
+		if (selection == Selection.LEAST_CONNECTIONS) {
+			return candidates.stream()
+				.min(Comparator.comparingInt(i -> replicas.get(i).activeConnections()))
+				.orElseThrow();
+		}
+		return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+	}
+
+	private boolean isAvailable(Replica replica) {
+		return replica.reachable && replica.lagNanos <= maxLagNanos;
+	}
+
+	private static long version(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement statement = connection.prepareStatement(VERSION_QUERY);
+			 ResultSet resultSet = statement.executeQuery()) {
+			return resultSet.next() ? resultSet.getLong(1) : 0L;
+		}
+	}
+
+	private static void closeIfPossible(DataSource dataSource) {
+		if (dataSource instanceof AutoCloseable closeable) {
+			try {
+				closeable.close();
+			} catch (Exception e) {
+				log.warn("Failed to close datasource", e);
+			}
+		}
+	}
+
+	public interface Pin extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+
+	/**
+	 * 한 요청의 읽기 대상(복제본 번호 또는 primary). 처음 읽을 때 정해지며, 범위에 참여한 여러 스레드가 함께 쓴다.
+	 */
+	public static final class PinScope {
+
+		private final AtomicReference<Object> target;
+
+		private PinScope(Object target) {
+			this.target = new AtomicReference<>(target);
+		}
+
+		/**
+		 * 주어진 읽기 대상으로 이미 고정된 범위. 대상이 null 이면 처음 읽을 때 고른다.
+		 */
+		public static PinScope pinnedTo(Object target) {
+			return new PinScope(target);
+		}
+
+		/**
+		 * @return 고른 읽기 대상. 아직 읽지 않았으면 null
+		 */
+		public Object target() {
+			return target.get();
+		}
+
+		/**
+		 * 아직 읽기 대상을 고르지 않았으면 other 가 고른 대상을 이어받는다.
+		 */
+		public void adopt(PinScope other) {
+			Object chosen = other.target.get();
+			if (chosen != null) {
+				target.compareAndSet(null, chosen);
+			}
+		}
+	}
+
+	private class Router extends AbstractRoutingDataSource {
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			return lookupKey();
+		}
+	}
+
+	private static final class Replica {
+
+		private final DataSource dataSource;
+		// 첫 측정 전까지는 쓰지 않는다.
+		private volatile boolean reachable;
+		private volatile long lagNanos;
+
+		private Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		private int activeConnections() {
+			return dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null
+				? hikari.getHikariPoolMXBean().getActiveConnections()
+				: 0;
+		}
+	}
+}
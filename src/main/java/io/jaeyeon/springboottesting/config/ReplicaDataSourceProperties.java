@@ -0,0 +1,24 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * employee.datasource.replicas[n].url 등으로 지정한 읽기 전용 복제본. 하나라도 있으면 {@link ReadWriteRoutingConfig} 가 켜진다.
+ *
+ * @param maxLag 이보다 뒤처진 복제본에는 읽기를 보내지 않는다.
+ * @param lagCheckInterval 복제 지연을 측정하는 주기
+ */
+@ConfigurationProperties("employee.datasource")
+public record ReplicaDataSourceProperties(
+	List<Replica> replicas,
+	@DefaultValue("ROUND_ROBIN") ReadWriteRoutingDataSource.Selection selection,
+	@DefaultValue("5s") Duration maxLag,
+	@DefaultValue("1s") Duration lagCheckInterval) {
+
+	public record Replica(String url, String username, String password) {
+	}
+}
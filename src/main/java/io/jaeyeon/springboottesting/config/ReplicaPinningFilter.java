@@ -0,0 +1,31 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * /api 요청 하나의 읽기 전용 트랜잭션들이 모두 같은 복제본에서 읽도록 요청 동안 {@link ReadWriteRoutingDataSource#pin()} 한다.
+ * 복제본이 설정된 경우에만 {@link ReadWriteRoutingConfig} 가 등록한다.
+ */
+public class ReplicaPinningFilter extends OncePerRequestFilter {
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+		throws ServletException, IOException {
+
+		try (ReadWriteRoutingDataSource.Pin pin = ReadWriteRoutingDataSource.pin()) {
+			filterChain.doFilter(request, response);
+		}
+	}
+}
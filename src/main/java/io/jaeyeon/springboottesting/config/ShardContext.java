@@ -0,0 +1,34 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 접속할 물리 샤드. {@link ShardRoutingDataSource} 는 트랜잭션의 첫 SQL 에서 이 값을 보므로,
+ * 트랜잭션의 첫 SQL 은 반드시 {@link #callOn} 안에서 실행해야 한다.
+ */
+public final class ShardContext {
+
+	private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+	private ShardContext() {
+	}
+
+	// 지정하지 않았으면 null 이며, 이때는 샤드 0 에 접속한다.
+	public static Integer current() {
+		return CURRENT.get();
+	}
+
+	public static <T> T callOn(int physicalShard, Supplier<T> action) {
+		Integer previous = CURRENT.get();
+		CURRENT.set(physicalShard);
+		try {
+			return action.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * {@link ShardContext} 가 가리키는 물리 샤드로 커넥션을 보내는 DataSource. 샤드를 지정하지 않은 접근은 샤드 0 으로 가며,
+ * 샤드로 나누지 않는 테이블(변경 카운터, 샤드 배치)은 샤드 0 에만 있다. employees 와 그 변경 로그(employee_changes)는
+ * 같은 트랜잭션에서 기록되도록 각 샤드에 함께 있다.
+ *
+ * <p>JPA 트랜잭션은 시작할 때 커넥션을 얻으므로, 실제 커넥션은 첫 SQL 실행 시점의 샤드에서 고르도록
+ * {@link LazyConnectionDataSourceProxy} 로 감싼다. 한 트랜잭션은 처음 고른 샤드만 쓴다.
+ */
+public class ShardRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+	private final List<DataSource> shards;
+
+	public ShardRoutingDataSource(List<DataSource> shards) {
+		this.shards = List.copyOf(shards);
+
+		Map<Object, Object> targets = new HashMap<>();
+		for (int i = 0; i < shards.size(); i++) {
+			targets.put(i, shards.get(i));
+		}
+		Router router = new Router();
+		router.setTargetDataSources(targets);
+		router.setDefaultTargetDataSource(shards.get(0));
+		// 없는 샤드 번호로 조회하면 샤드 0 으로 조용히 넘어가지 않고 실패하게 한다.
+		router.setLenientFallback(false);
+		router.afterPropertiesSet();
+		setTargetDataSource(router);
+	}
+
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	public DataSource getShard(int physicalShard) {
+		return shards.get(physicalShard);
+	}
+
+	@Override
+	public void close() throws Exception {
+		for (DataSource shard : shards) {
+			if (shard instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	private static class Router extends AbstractRoutingDataSource {
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			return ShardContext.current();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.jaeyeon.springboottesting.repository.EmployeeShardMap;
+import io.jaeyeon.springboottesting.repository.EmployeeShardPlacementRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 샤드가 설정되어 있으면 spring.datasource.* 와 employee.sharding.shards 의 풀을 묶은 {@link ShardRoutingDataSource} 를
+ * 유일한 DataSource 빈으로 등록한다. 복제본 라우팅(employee.datasource.replicas)과는 함께 쓸 수 없다.
+ *
+ * <p>Hibernate 의 ddl-auto 는 샤드 0 에만 적용되므로 나머지 샤드의 스키마는 따로 만들어 두어야 한다.
+ *
+ * <p>직원 데이터를 다루는 서비스는 {@link EmployeeShardRouter} 로 샤드를 골라 실행한다. reactive 프로필의 R2DBC 저장소는
+ * 샤드를 모르므로 함께 쓸 수 없다. 행이 있는 논리 샤드를 옮기는 재분배 도구는 없으며, 배치(employee_shard_placement)는
+ * 비어 있는 논리 샤드에만 바꾼다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "employee.sharding", name = "shards[0].url")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+	@Bean
+	public ShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+		ShardingProperties shardingProperties, Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+
+		List<DataSource> shards = new ArrayList<>();
+		shards.add(ReadWriteRoutingConfig.pool("shard-0", dataSourceProperties.determineUrl(),
+			dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+			dataSourceProperties.determineDriverClassName(), environment, meterRegistry));
+		for (int i = 0; i < shardingProperties.shards().size(); i++) {
+			ShardingProperties.Shard shard = shardingProperties.shards().get(i);
+			shards.add(ReadWriteRoutingConfig.pool("shard-" + (i + 1), shard.url(),
+				shard.username() != null ? shard.username() : dataSourceProperties.determineUsername(),
+				shard.password() != null ? shard.password() : dataSourceProperties.determinePassword(),
+				dataSourceProperties.determineDriverClassName(), environment, meterRegistry));
+		}
+		return new ShardRoutingDataSource(shards);
+	}
+
+	@Bean
+	public EmployeeShardMap employeeShardMap(EmployeeShardPlacementRepository placementRepository,
+		ShardRoutingDataSource dataSource) {
+		return new EmployeeShardMap(placementRepository, dataSource.getShardCount());
+	}
+}
@@ -0,0 +1,15 @@
+package io.jaeyeon.springboottesting.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * spring.datasource.* 가 샤드 0 이고, employee.sharding.shards[n] 이 샤드 n+1 이다. 하나라도 있으면 {@link ShardingConfig} 가 켜진다.
+ */
+@ConfigurationProperties("employee.sharding")
+public record ShardingProperties(List<Shard> shards) {
+
+	public record Shard(String url, String username, String password) {
+	}
+}
@@ -0,0 +1,58 @@
+package io.jaeyeon.springboottesting.config;
+
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Accept / Content-Type 이 application/cbor 또는 application/x-jackson-smile 인 요청을 바이너리 포맷으로 처리한다.
+ * JSON 과 같은 Jackson 설정(spring.jackson.*)을 쓰도록 Boot 의 Jackson2ObjectMapperBuilder 로 매퍼를 만들며,
+ * 기본 포맷은 그대로 JSON 이다.
+ */
+@Configuration
+public class WireFormatConfig {
+
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	// Boot 의 HttpMessageConverters 가 같은 타입의 기본 컨버터를 이 빈으로 대체한다.
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+	}
+
+	@Bean
+	public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+		ObjectMapper cborMapper = cborMapper(builder);
+		ObjectMapper smileMapper = smileMapper(builder);
+		return configurer -> {
+			configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+			configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+			configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper));
+			configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper));
+		};
+	}
+
+	private static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.build().copyWith(new CBORFactory());
+	}
+
+	private static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+		return builder.build().copyWith(new SmileFactory());
+	}
+}
@@ -1,63 +1,281 @@
 package io.jaeyeon.springboottesting.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.config.ReadWriteRoutingDataSource;
+import io.jaeyeon.springboottesting.config.WireFormatConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeChangePage;
+import io.jaeyeon.springboottesting.dto.EmployeeIngestStatus;
+import io.jaeyeon.springboottesting.dto.EmployeeMultiGetResult;
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.IngestQueueFullException;
 import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeChangeFeedService;
+import io.jaeyeon.springboottesting.service.EmployeeIngestService;
+import io.jaeyeon.springboottesting.service.EmployeeMultiGetService;
 import io.jaeyeon.springboottesting.service.EmployeeService;
+import io.jaeyeon.springboottesting.service.EmployeeSnapshotService;
 import lombok.RequiredArgsConstructor;
 
+@Profile("!reactive")
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+	private static final int MAX_PAGE_SIZE = 1000;
+	// 클라이언트가 응답을 저장하되 매번 ETag 로 재검증하도록 한다.
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+	// 서블릿 컨테이너의 비동기 요청 타임아웃(기본 30초)보다 짧아야 한다.
+	private static final Duration MAX_CHANGE_WAIT = Duration.ofSeconds(25);
+
 	private final EmployeeService employeeService;
+	private final EmployeeChangeFeedService changeFeedService;
+	private final EmployeeMultiGetService multiGetService;
+	private final ObjectProvider<EmployeeIngestService> ingestServiceProvider;
+	private final ObjectProvider<EmployeeSnapshotService> snapshotServiceProvider;
+	private final ObjectMapper objectMapper;
 
+	/**
+	 * 비동기 등록(employee.ingest.enabled)이 켜져 있으면 큐에 넣고 202 Accepted 와 처리 상태 URL 을 Location 으로 응답한다.
+	 */
 	@PostMapping
-	public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
+	public ResponseEntity<Object> createEmployee(@RequestBody Employee employee) {
+		EmployeeIngestService ingestService = ingestServiceProvider.getIfAvailable();
+		if (ingestService != null) {
+			String ticket = ingestService.submit(employee);
+			URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+				.path("/ingest/{ticket}")
+				.buildAndExpand(ticket)
+				.toUri();
+			return ResponseEntity.accepted()
+				.location(status)
+				.body(EmployeeIngestStatus.queued(ticket));
+		}
 		Employee savedEmployee = employeeService.saveEmployee(employee);
 		return new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
 	}
 
+	@GetMapping("/ingest/{ticket}")
+	public ResponseEntity<EmployeeIngestStatus> getIngestStatus(@PathVariable("ticket") String ticket) {
+		return Optional.ofNullable(ingestServiceProvider.getIfAvailable())
+			.flatMap(ingestService -> ingestService.getStatus(ticket))
+			.map(ResponseEntity::ok)
+			.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+
+	@PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+		WireFormatConfig.APPLICATION_SMILE_VALUE})
+	public ResponseEntity<List<EmployeeBatchResult>> createEmployees(@RequestBody List<Employee> employees) {
+		return ResponseEntity.ok(employeeService.saveEmployees(employees.iterator()));
+	}
+
+	// NDJSON 본문은 한 줄씩 읽어가며 저장하므로 요청 전체를 메모리에 올리지 않는다.
+	@PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<List<EmployeeBatchResult>> createEmployeesFromStream(InputStream inputStream) throws IOException {
+		try (MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class).readValues(inputStream)) {
+			return ResponseEntity.ok(employeeService.saveEmployees(employees));
+		}
+	}
+
+	/**
+	 * fields 파라미터(예: fields=id,email)를 주면 해당 필드만 응답한다.
+	 * ETag 는 테이블 변경 카운터이므로 If-None-Match 가 일치하면 목록을 조회하지 않고 304 로 응답한다.
+	 * 같은 카운터를 fields 와 응답 포맷(JSON/CBOR/Smile)이 다른 표현이 공유하므로 weak ETag 로 내려준다.
+	 */
 	@GetMapping
-	public List<Employee> getAllEmployees() {
-		return employeeService.getAllEmployees();
+	public ResponseEntity<List<Object>> getEmployees(
+		@RequestParam(value = "after", required = false) Long after,
+		@RequestParam(value = "limit", defaultValue = "100") int limit,
+		@RequestParam(value = "fields", required = false) Set<String> fields, WebRequest webRequest) {
+
+		String eTag = tableETag();
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		int pageSize = pageSize(limit);
+		return page(employeeService.getEmployees(after, pageSize), pageSize, fields, eTag);
+	}
+
+	/**
+	 * GET /api/employees?ids=1,2,3 은 여러 직원을 한 번에 조회한다. 결과는 요청한 id 순서대로이며, 없는 id 는 missing 에 담긴다.
+	 * URL 길이를 넘는 긴 목록은 POST /api/employees/lookup 으로 보낸다.
+	 */
+	@GetMapping(params = "ids")
+	public ResponseEntity<EmployeeMultiGetResult> getEmployeesByIds(@RequestParam("ids") List<Long> ids) {
+		return multiGet(ids);
+	}
+
+	@PostMapping("/lookup")
+	public ResponseEntity<EmployeeMultiGetResult> lookupEmployees(@RequestBody List<Long> ids) {
+		return multiGet(ids);
+	}
+
+	/**
+	 * since(이전 응답의 next, 처음에는 0) 이후의 생성/수정/삭제만 돌려주는 변경 피드.
+	 * wait(예: PT20S)를 주면 변경이 없을 때 새 변경이 커밋되거나 wait 가 지날 때까지 응답을 미룬다(long-poll).
+	 * 요청한 구간이 보존 기간이 지나 삭제되었으면 410 Gone 이며, 클라이언트는 전체 목록으로 다시 동기화해야 한다.
+	 */
+	@GetMapping("/changes")
+	public CompletableFuture<EmployeeChangePage> getChanges(
+		@RequestParam(value = "since", defaultValue = "0") long since,
+		@RequestParam(value = "limit", defaultValue = "100") int limit,
+		@RequestParam(value = "wait", defaultValue = "PT0S") Duration wait) {
+
+		int pageSize = pageSize(limit);
+		EmployeeChangePage changes = changeFeedService.getChanges(since, pageSize);
+		if (!changes.changes().isEmpty() || wait.isZero() || wait.isNegative()) {
+			return CompletableFuture.completedFuture(changes);
+		}
+		Duration timeout = wait.compareTo(MAX_CHANGE_WAIT) > 0 ? MAX_CHANGE_WAIT : wait;
+		// 후속 조회는 변경 피드의 가상 스레드에서 실행되므로 이 요청의 복제본 고정을 넘겨준다.
+		ReadWriteRoutingDataSource.PinScope pin = ReadWriteRoutingDataSource.currentPin();
+		return changeFeedService.awaitChangeAfter(since, timeout)
+			.thenApply(ignored -> ReadWriteRoutingDataSource.callWithin(pin,
+				() -> changeFeedService.getChanges(since, pageSize)));
+	}
+
+	/**
+	 * 이름은 접두어로, 이메일 도메인은 일치 여부로 검색한다(예: lastName=Ch&emailDomain=gmail.com).
+	 */
+	@GetMapping("/search")
+	public ResponseEntity<List<Object>> searchEmployees(
+		@RequestParam(value = "firstName", required = false) String firstName,
+		@RequestParam(value = "lastName", required = false) String lastName,
+		@RequestParam(value = "emailDomain", required = false) String emailDomain,
+		@RequestParam(value = "after", required = false) Long after,
+		@RequestParam(value = "limit", defaultValue = "100") int limit,
+		@RequestParam(value = "fields", required = false) Set<String> fields, WebRequest webRequest) {
+
+		String eTag = tableETag();
+		if (webRequest.checkNotModified(eTag)) {
+			return null;
+		}
+		int pageSize = pageSize(limit);
+		EmployeeSearchCondition condition = new EmployeeSearchCondition(firstName, lastName, emailDomain);
+		return page(employeeService.searchEmployees(condition, after, pageSize), pageSize, fields, eTag);
+	}
+
+	/**
+	 * 스냅샷이 켜져 있고(employee.snapshot.enabled) 클라이언트가 gzip 을 받을 수 있으면 미리 압축해 둔 바이트를 그대로 내려준다.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamEmployees(
+		@RequestParam(value = "fields", required = false) Set<String> fields,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+		EmployeeSnapshotService snapshotService = snapshotServiceProvider.getIfAvailable();
+		if (snapshotService != null && fields == null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+			EmployeeSnapshotService.Snapshot snapshot = snapshotService.getSnapshot();
+			return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.contentLength(snapshot.gzippedNdjson().length)
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.eTag("\"" + snapshot.tableVersion() + "\"")
+				.cacheControl(REVALIDATE)
+				.body(outputStream -> outputStream.write(snapshot.gzippedNdjson()));
+		}
+
+		// 본문은 MVC 비동기 스레드에서 쓰이므로 이 요청의 복제본 고정을 넘겨준다.
+		ReadWriteRoutingDataSource.PinScope pin = ReadWriteRoutingDataSource.currentPin();
+		StreamingResponseBody body = outputStream -> ReadWriteRoutingDataSource.runWithin(pin,
+			() -> employeeService.streamEmployees(employee -> writeLine(outputStream, render(employee, fields))));
+
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.body(body);
 	}
 
 	@GetMapping("/{id}")
-	public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long employeeId) {
+	public ResponseEntity<Object> getEmployeeById(@PathVariable("id") Long employeeId,
+		@RequestParam(value = "fields", required = false) Set<String> fields) {
+
 		return employeeService.getEmployeeById(employeeId)
 			// map: Optional 객체에서 ResponseEntity 객체로 변환하는 함수를 적용
-			.map(ResponseEntity::ok)
+			// ETag 는 엔티티 버전이며, If-None-Match 가 일치하면 본문을 직렬화하지 않고 304 로 응답한다.
+			// 버전이 같아도 fields 와 응답 포맷에 따라 본문 바이트가 달라지므로 weak ETag 로 내려준다.
+			.map(employee -> ResponseEntity.ok()
+				.eTag(weakETag(employee.version()))
+				.varyBy(HttpHeaders.ACCEPT)
+				.cacheControl(REVALIDATE)
+				.body(render(employee, fields)))
 			// orElseGet: ResponseEntity.notFound()를 호출하여 HTTP 404 Not Found 상태 코드를 가지는 응답 객체를 반환
 			.orElseGet(() -> ResponseEntity.notFound().build());
 	}
 
+	/**
+	 * 요청 본문에서 null 이 아닌 필드만 변경한다. If-Match 헤더에 버전(ETag)을 주면 해당 버전일 때만 변경하고,
+	 * 다르면 412 Precondition Failed 로 응답한다.
+	 */
 	@PutMapping("/{id}")
-	public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long employeeId, @RequestBody Employee employee) {
-		return employeeService.getEmployeeById(employeeId)
-			.map(savedEmployee -> {
-				Employee updatedEmployee = Employee.builder()
-					.firstName(employee.getFirstName())
-					.lastName(employee.getLastName())
-					.email(employee.getEmail())
-					.build();
-
-				updatedEmployee = employeeService.updateEmployee(updatedEmployee);
-				return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
-			})
-			.orElseGet(() -> ResponseEntity.notFound().build());
+	public ResponseEntity<Void> updateEmployee(@PathVariable("id") Long employeeId, @RequestBody Employee employee,
+		@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+		employeeService.updateEmployee(employeeId, employee, IfMatch.expectedVersion(ifMatch));
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * DELETE /api/employees?ids=1,2,3 은 id 목록으로, ids 없이 firstName / lastName / emailDomain 을 주면 검색과 같은 조건으로
+	 * 한 번에 삭제한다. 조건이 하나도 없는 요청은 전체 삭제를 막기 위해 400 으로 응답한다.
+	 */
+	@DeleteMapping
+	public ResponseEntity<Map<String, Integer>> deleteEmployees(
+		@RequestParam(value = "ids", required = false) Set<Long> ids,
+		@RequestParam(value = "firstName", required = false) String firstName,
+		@RequestParam(value = "lastName", required = false) String lastName,
+		@RequestParam(value = "emailDomain", required = false) String emailDomain) {
+
+		if (ids != null) {
+			if (ids.isEmpty() || ids.size() > MAX_PAGE_SIZE) {
+				return ResponseEntity.badRequest().build();
+			}
+			return ResponseEntity.ok(Map.of("deleted", employeeService.deleteEmployees(ids)));
+		}
+		EmployeeSearchCondition condition = new EmployeeSearchCondition(firstName, lastName, emailDomain);
+		if (!condition.hasAnyFilter()) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(Map.of("deleted", employeeService.deleteEmployees(condition)));
 	}
 
 	@DeleteMapping("/{id}")
@@ -67,4 +285,70 @@ public class EmployeeController {
 
 		return new ResponseEntity<>("Employee deleted success!", HttpStatus.OK);
 	}
+
+	@ExceptionHandler(IngestQueueFullException.class)
+	public ResponseEntity<Void> handleIngestQueueFull() {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header(HttpHeaders.RETRY_AFTER, "1")
+			.build();
+	}
+
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<Void> handleVersionMismatch() {
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+	}
+
+	private ResponseEntity<EmployeeMultiGetResult> multiGet(List<Long> ids) {
+		if (ids.isEmpty() || ids.size() > multiGetService.getMaxIds() || ids.contains(null)) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(multiGetService.getEmployees(ids));
+	}
+
+	private static int pageSize(int limit) {
+		return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+	}
+
+	private String tableETag() {
+		return weakETag(employeeService.getTableVersion());
+	}
+
+	static String weakETag(long version) {
+		return "W/\"" + version + "\"";
+	}
+
+	private static ResponseEntity<List<Object>> page(List<EmployeeView> employees, int pageSize, Set<String> fields,
+		String eTag) {
+
+		List<Object> body = employees.stream().map(employee -> render(employee, fields)).toList();
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+			.eTag(eTag)
+			.varyBy(HttpHeaders.ACCEPT)
+			.cacheControl(REVALIDATE);
+
+		// 페이지가 가득 찼다면 마지막 id 를 커서로 하는 다음 페이지 링크를 Link 헤더로 내려준다.
+		if (employees.size() < pageSize) {
+			return response.body(body);
+		}
+		String next = ServletUriComponentsBuilder.fromCurrentRequest()
+			.replaceQueryParam("after", employees.get(employees.size() - 1).id())
+			.replaceQueryParam("limit", pageSize)
+			.toUriString();
+		return response
+			.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+			.body(body);
+	}
+
+	private static Object render(EmployeeView employee, Set<String> fields) {
+		return fields == null ? employee : employee.select(fields);
+	}
+
+	private void writeLine(OutputStream outputStream, Object employee) {
+		try {
+			outputStream.write(objectMapper.writeValueAsBytes(employee));
+			outputStream.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
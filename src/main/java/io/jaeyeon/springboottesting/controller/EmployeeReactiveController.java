@@ -0,0 +1,88 @@
+package io.jaeyeon.springboottesting.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeReactiveService;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive 프로필에서 EmployeeController 대신 /api/employees 를 처리하는 WebFlux 컨트롤러.
+ */
+@Profile("reactive")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/employees")
+public class EmployeeReactiveController {
+
+	private static final int MAX_PAGE_SIZE = 1000;
+
+	private final EmployeeReactiveService employeeReactiveService;
+
+	@PostMapping
+	public Mono<ResponseEntity<Employee>> createEmployee(@RequestBody Employee employee) {
+		return employeeReactiveService.saveEmployee(employee)
+			.map(savedEmployee -> new ResponseEntity<>(savedEmployee, HttpStatus.CREATED));
+	}
+
+	@GetMapping
+	public Flux<EmployeeView> getEmployees(
+		@RequestParam(value = "after", required = false) Long after,
+		@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		return employeeReactiveService.getEmployees(after, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+	}
+
+	// 느린 클라이언트에게는 요청한 만큼만 DB 에서 읽어 흘려보낸다.
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<EmployeeView> streamEmployees() {
+		return employeeReactiveService.streamEmployees();
+	}
+
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<EmployeeView>> getEmployeeById(@PathVariable("id") Long employeeId) {
+		// ResponseEntityResultHandler 가 If-None-Match 와 ETag 를 비교해 일치하면 304 로 응답한다.
+		// 응답 포맷마다 본문 바이트가 다르므로 MVC 컨트롤러와 같이 weak ETag 와 Vary: Accept 를 내려준다.
+		return employeeReactiveService.getEmployeeById(employeeId)
+			.map(employee -> ResponseEntity.ok()
+				.eTag(EmployeeController.weakETag(employee.version()))
+				.varyBy(HttpHeaders.ACCEPT)
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.body(employee))
+			.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@PutMapping("/{id}")
+	public Mono<ResponseEntity<Void>> updateEmployee(@PathVariable("id") Long employeeId, @RequestBody Employee employee,
+		@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		// 잘못된 If-Match 도 버전 불일치와 같이 412 로 응답하도록 헤더 해석을 구독 시점으로 미룬다.
+		return Mono.defer(() -> employeeReactiveService.updateEmployee(employeeId, employee, IfMatch.expectedVersion(ifMatch)))
+			.thenReturn(ResponseEntity.noContent().<Void>build())
+			.onErrorReturn(OptimisticLockingFailureException.class,
+				ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
+	}
+
+	@DeleteMapping("/{id}")
+	public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") Long employeeId) {
+		return employeeReactiveService.deleteEmployee(employeeId)
+			.thenReturn(new ResponseEntity<>("Employee deleted success!", HttpStatus.OK));
+	}
+}
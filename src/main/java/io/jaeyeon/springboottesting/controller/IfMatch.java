@@ -0,0 +1,27 @@
+package io.jaeyeon.springboottesting.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * MVC / WebFlux 컨트롤러가 공유하는 If-Match 헤더 해석.
+ * GET 응답의 ETag 는 표현과 무관한 버전을 담은 weak 태그이므로 W/ 접두사를 떼고 버전만 비교한다.
+ * 엔티티 버전이 아닌 태그는 어떤 버전과도 일치하지 않으므로 412 로 응답하도록 OptimisticLockingFailureException 을 던진다.
+ */
+final class IfMatch {
+
+	private IfMatch() {
+	}
+
+	// 헤더가 없거나 * 이면 버전을 확인하지 않는다(null).
+	static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.startsWith("W/") ? ifMatch.substring(2) : ifMatch;
+		try {
+			return Long.valueOf(tag.replace("\"", "").trim());
+		} catch (NumberFormatException e) {
+			throw new OptimisticLockingFailureException("If-Match does not match any employee version:" + ifMatch);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package io.jaeyeon.springboottesting.dto;
+
+/**
+ * 일괄 등록 요청의 행 단위 처리 결과. index 는 요청 본문에서의 위치(0부터 시작)이다.
+ */
+public record EmployeeBatchResult(int index, Status status, Long id, String message) {
+
+	public enum Status {
+		CREATED, DUPLICATE, INVALID
+	}
+
+	public static EmployeeBatchResult created(int index, Long id) {
+		return new EmployeeBatchResult(index, Status.CREATED, id, null);
+	}
+
+	public static EmployeeBatchResult duplicate(int index, String email) {
+		return new EmployeeBatchResult(index, Status.DUPLICATE, null, "Employee already exist with given email:" + email);
+	}
+
+	public static EmployeeBatchResult invalid(int index, String message) {
+		return new EmployeeBatchResult(index, Status.INVALID, null, message);
+	}
+}
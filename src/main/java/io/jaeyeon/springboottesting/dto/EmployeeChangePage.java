@@ -0,0 +1,13 @@
+package io.jaeyeon.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * @param next 다음 요청의 since 값. 변경이 없으면 요청한 since 그대로다.
+ */
+public record EmployeeChangePage(List<EmployeeChangeView> changes, long next) {
+
+	public static EmployeeChangePage empty(long since) {
+		return new EmployeeChangePage(List.of(), since);
+	}
+}
@@ -0,0 +1,18 @@
+package io.jaeyeon.springboottesting.dto;
+
+import java.time.Instant;
+
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+
+/**
+ * 변경 피드의 한 항목. CREATED / UPDATED 는 조회 시점의 최신 상태를 employee 에 담고,
+ * DELETED 이거나 그 사이 삭제되었으면 employee 는 null 이다.
+ */
+public record EmployeeChangeView(long sequence, long employeeId, EmployeeChange.Type type, Instant changedAt,
+	EmployeeView employee) {
+
+	public static EmployeeChangeView of(EmployeeChange change, EmployeeView employee) {
+		return new EmployeeChangeView(change.getSequence(), change.getEmployeeId(), change.getType(),
+			change.getChangedAt(), change.getType() == EmployeeChange.Type.DELETED ? null : employee);
+	}
+}
@@ -0,0 +1,28 @@
+package io.jaeyeon.springboottesting.dto;
+
+/**
+ * 비동기 등록 요청(ticket)의 처리 상태. 저장되면 id 가, 실패하면 message 가 채워진다.
+ */
+public record EmployeeIngestStatus(String ticket, State state, Long id, String message) {
+
+	public enum State {
+		QUEUED, CREATED, DUPLICATE, INVALID, FAILED
+	}
+
+	public static EmployeeIngestStatus queued(String ticket) {
+		return new EmployeeIngestStatus(ticket, State.QUEUED, null, null);
+	}
+
+	public static EmployeeIngestStatus of(String ticket, EmployeeBatchResult result) {
+		State state = switch (result.status()) {
+			case CREATED -> State.CREATED;
+			case DUPLICATE -> State.DUPLICATE;
+			case INVALID -> State.INVALID;
+		};
+		return new EmployeeIngestStatus(ticket, state, result.id(), result.message());
+	}
+
+	public static EmployeeIngestStatus failed(String ticket, String message) {
+		return new EmployeeIngestStatus(ticket, State.FAILED, null, message);
+	}
+}
@@ -0,0 +1,10 @@
+package io.jaeyeon.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * @param employees 요청한 id 순서대로 정렬된 조회 결과. 중복된 id 는 한 번만 담는다.
+ * @param missing 존재하지 않는 id, 역시 요청 순서대로다.
+ */
+public record EmployeeMultiGetResult(List<EmployeeView> employees, List<Long> missing) {
+}
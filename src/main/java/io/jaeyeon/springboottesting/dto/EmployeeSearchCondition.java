@@ -0,0 +1,13 @@
+package io.jaeyeon.springboottesting.dto;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * 검색 API 의 조건. 이름은 접두어로, 이메일 도메인은 대소문자 구분 없이 일치 여부로 비교한다.
+ */
+public record EmployeeSearchCondition(String firstName, String lastName, String emailDomain) {
+
+	public boolean hasAnyFilter() {
+		return StringUtils.hasText(firstName) || StringUtils.hasText(lastName) || StringUtils.hasText(emailDomain);
+	}
+}
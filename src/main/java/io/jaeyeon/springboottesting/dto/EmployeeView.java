@@ -0,0 +1,34 @@
+package io.jaeyeon.springboottesting.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 조회 전용 API 의 응답 모델. JPQL 생성자 표현식으로 바로 만들어지므로 영속성 컨텍스트에 엔티티나 스냅샷을 남기지 않는다.
+ */
+public record EmployeeView(Long id, String firstName, String lastName, String email, long version) {
+
+	/**
+	 * fields= 파라미터로 요청한 필드만 담은 응답을 만든다. 알 수 없는 필드 이름은 무시한다.
+	 */
+	public Map<String, Object> select(Set<String> fields) {
+		Map<String, Object> selected = new LinkedHashMap<>();
+		if (fields.contains("id")) {
+			selected.put("id", id);
+		}
+		if (fields.contains("firstName")) {
+			selected.put("firstName", firstName);
+		}
+		if (fields.contains("lastName")) {
+			selected.put("lastName", lastName);
+		}
+		if (fields.contains("email")) {
+			selected.put("email", email);
+		}
+		if (fields.contains("version")) {
+			selected.put("version", version);
+		}
+		return selected;
+	}
+}
@@ -0,0 +1,13 @@
+package io.jaeyeon.springboottesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 요청한 since 이후의 변경 일부가 보존 기간이 지나 삭제되었으므로, 클라이언트는 전체 목록으로 다시 동기화해야 한다.
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeFeedExpiredException extends RuntimeException {
+
+	public ChangeFeedExpiredException(String message) {
+		super(message);
+	}
+}
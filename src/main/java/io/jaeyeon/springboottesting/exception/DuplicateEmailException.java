@@ -0,0 +1,33 @@
+package io.jaeyeon.springboottesting.exception;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import io.jaeyeon.springboottesting.model.Employee;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateEmailException extends RuntimeException {
+
+	public DuplicateEmailException(String message) {
+		super(message);
+	}
+
+	public DuplicateEmailException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	// not null, 길이 제한 등 다른 제약 위반과 구분하기 위해 위반한 제약 이름을 확인한다.
+	// R2DBC 예외에는 제약 이름이 따로 없으므로 드라이버 메시지에서 찾는다.
+	public static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+		if (e.getCause() instanceof ConstraintViolationException violation) {
+			return violation.getConstraintName() != null
+				&& violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+		}
+		String message = e.getMostSpecificCause().getMessage();
+		return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+	}
+}
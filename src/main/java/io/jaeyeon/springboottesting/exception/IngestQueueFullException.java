@@ -0,0 +1,12 @@
+package io.jaeyeon.springboottesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class IngestQueueFullException extends RuntimeException {
+
+	public IngestQueueFullException(String message) {
+		super(message);
+	}
+}
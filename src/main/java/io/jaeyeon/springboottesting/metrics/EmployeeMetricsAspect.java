@@ -0,0 +1,84 @@
+package io.jaeyeon.springboottesting.metrics;
+
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * EmployeeService, EmployeeRepository 의 모든 호출을 method/outcome 태그가 붙은 Timer 로 기록한다.
+ * 캐시 적중도 측정되도록 캐시, 트랜잭션 advice 보다 바깥에서 동작한다.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@RequiredArgsConstructor
+public class EmployeeMetricsAspect {
+
+	static final String SERVICE_TIMER = "employee.service";
+	static final String REPOSITORY_TIMER = "employee.repository";
+
+	private final MeterRegistry meterRegistry;
+
+	@Around("execution(public * io.jaeyeon.springboottesting.service.EmployeeService.*(..))")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(SERVICE_TIMER, joinPoint);
+	}
+
+	@Around("this(io.jaeyeon.springboottesting.repository.EmployeeRepository)")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(REPOSITORY_TIMER, joinPoint);
+	}
+
+	private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "error";
+		try {
+			Object result = joinPoint.proceed();
+			outcome = outcomeOf(joinPoint, result);
+			return result;
+		} catch (DuplicateEmailException e) {
+			outcome = "duplicate";
+			throw e;
+		} catch (DataIntegrityViolationException e) {
+			// 저장소 호출에서는 이메일 중복도 번역되지 않은 채 올라온다.
+			outcome = DuplicateEmailException.isDuplicateEmail(e) ? "duplicate" : "error";
+			throw e;
+		} catch (ResourceNotFoundException e) {
+			outcome = "not-found";
+			throw e;
+		} catch (OptimisticLockingFailureException e) {
+			outcome = "conflict";
+			throw e;
+		} finally {
+			sample.stop(Timer.builder(name)
+				.tag("method", joinPoint.getSignature().getName())
+				.tag("outcome", outcome)
+				.publishPercentileHistogram()
+				.register(meterRegistry));
+		}
+	}
+
+	private static String outcomeOf(ProceedingJoinPoint joinPoint, Object result) {
+		if (result instanceof Optional<?> optional) {
+			return optional.isPresent() ? "found" : "not-found";
+		}
+		if (result == null && ((MethodSignature) joinPoint.getSignature()).getReturnType() != void.class) {
+			return "not-found";
+		}
+		return "success";
+	}
+}
@@ -0,0 +1,35 @@
+package io.jaeyeon.springboottesting.metrics;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.listener.logging.SLF4JQueryLoggingListener;
+
+/**
+ * 실행된 쿼리 중 sampleRate 비율만 INFO 로 남긴다. show_sql 처럼 모든 문장을 출력하지 않고도 운영 중 실행되는 SQL 을 확인할 수 있다.
+ */
+class SampledQueryLoggingListener implements QueryExecutionListener {
+
+	private final double sampleRate;
+	private final SLF4JQueryLoggingListener delegate = new SLF4JQueryLoggingListener();
+
+	SampledQueryLoggingListener(double sampleRate) {
+		this.sampleRate = sampleRate;
+		delegate.setLogLevel(SLF4JLogLevel.INFO);
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+			delegate.afterQuery(execInfo, queryInfoList);
+		}
+	}
+}
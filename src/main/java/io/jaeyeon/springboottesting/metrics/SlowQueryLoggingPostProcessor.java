@@ -0,0 +1,44 @@
+package io.jaeyeon.springboottesting.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * DataSource 를 datasource-proxy 로 감싸 employee.metrics.slow-query-threshold 를 넘긴 쿼리를
+ * 바인딩 파라미터와 함께 WARN 으로 남긴다. employee.metrics.sql-log-sample-rate 가 0 보다 크면 그 비율만큼의 쿼리도 INFO 로 남긴다.
+ */
+@Component
+public class SlowQueryLoggingPostProcessor implements BeanPostProcessor {
+
+	private final Duration threshold;
+	private final double sampleRate;
+
+	public SlowQueryLoggingPostProcessor(@Value("${employee.metrics.slow-query-threshold:500ms}") Duration threshold,
+		@Value("${employee.metrics.sql-log-sample-rate:0}") double sampleRate) {
+		this.threshold = threshold;
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+			ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+				.logSlowQueryBySlf4j(threshold.toMillis(), TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN);
+			if (sampleRate > 0) {
+				builder.listener(new SampledQueryLoggingListener(sampleRate));
+			}
+			return builder.build();
+		}
+		return bean;
+	}
+}
@@ -1,11 +1,22 @@
 package io.jaeyeon.springboottesting.model;
 
+import java.time.Instant;
+import java.util.Locale;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,14 +25,26 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Getter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SQLRestriction("deleted_at is null")
 @Builder
-@Table(name = "employees")
+@Table(name = "employees",
+	uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+	// 검색 API 의 접두어(LIKE 'x%') 조건과 도메인 조건이 인덱스 range scan 으로 처리되도록 한다.
+	indexes = {
+		@Index(name = "idx_employees_last_name_first_name", columnList = "last_name, first_name"),
+		@Index(name = "idx_employees_first_name", columnList = "first_name"),
+		@Index(name = "idx_employees_email_domain", columnList = "email_domain, id")})
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Employee {
 
+	public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// insert 전에 애플리케이션에서 채번하므로 JDBC batch 가 가능하고, 샤드가 여러 개여도 id 가 겹치지 않는다.
+	@GeneratedEmployeeId
 	private Long id;
 
 	@Column(name = "first_name", nullable = false)
@@ -32,4 +55,30 @@ public class Employee {
 
 	@Column(nullable = false)
 	private String email;
+
+	// email 의 '@' 뒤 부분을 소문자로 저장한다. email LIKE '%@domain' 은 인덱스를 탈 수 없기 때문이다.
+	@Column(name = "email_domain")
+	private String emailDomain;
+
+	// soft delete 모드에서 삭제된 시각. @SQLRestriction 으로 모든 조회에서 제외되며 EmployeeTombstonePurger 가 나중에 물리 삭제한다.
+	@Column(name = "deleted_at")
+	private Instant deletedAt;
+
+	// PUT 요청의 If-Match 헤더로 낙관적 락을 걸 때 비교하는 값이며, 수정될 때마다 1씩 증가한다.
+	@Version
+	@Column(nullable = false)
+	private long version;
+
+	public static String emailDomainOf(String email) {
+		if (email == null) {
+			return null;
+		}
+		return email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+	}
+
+	@PrePersist
+	@PreUpdate
+	void deriveEmailDomain() {
+		emailDomain = emailDomainOf(email);
+	}
 }
@@ -0,0 +1,64 @@
+package io.jaeyeon.springboottesting.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * employees 테이블 변경 로그(append-only). 쓰기 트랜잭션은 sequence 없이 기록하고, 커밋된 뒤
+ * EmployeeChangeSequencer 가 {@link EmployeeTableVersion} 을 올린 값을 sequence 로 매긴다. sequence 는 커밋 순서대로
+ * 증가하므로 변경 피드의 커서로 쓰며, 한 번에 매겨진 변경(일괄 작업 하나 이상)은 같은 sequence 를 공유한다.
+ */
+@Entity
+@Getter
+@Table(name = "employee_changes", indexes = {
+	@Index(name = "idx_employee_changes_change_seq", columnList = "change_seq"),
+	@Index(name = "idx_employee_changes_changed_at", columnList = "changed_at")})
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmployeeChange {
+
+	/**
+	 * DELETED 는 삭제 요청에 포함된 id 로 남기므로, 이미 없던 id 가 포함될 수 있다.
+	 */
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	// R2DBC 쓰기도 같은 방식으로 채번할 수 있도록 DB 시퀀스 대신 EmployeeIdGenerator 를 쓴다.
+	@Id
+	@GeneratedEmployeeId
+	private Long id;
+
+	// 아직 sequence 가 매겨지지 않았으면 null 이며, 변경 피드에는 보이지 않는다.
+	@Column(name = "change_seq")
+	private Long sequence;
+
+	@Column(name = "employee_id", nullable = false)
+	private long employeeId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Type type;
+
+	@Column(name = "changed_at", nullable = false)
+	private Instant changedAt;
+
+	public static EmployeeChange recorded(long employeeId, Type type, Instant changedAt) {
+		return new EmployeeChange(null, null, employeeId, type, changedAt);
+	}
+
+	public static EmployeeChange of(long sequence, long employeeId, Type type, Instant changedAt) {
+		return new EmployeeChange(null, sequence, employeeId, type, changedAt);
+	}
+}
@@ -0,0 +1,31 @@
+package io.jaeyeon.springboottesting.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 샤드가 여럿일 때 email 을 가진 직원. email 의 논리 샤드가 놓인 샤드(홈 샤드)에 있으므로, 어느 샤드의 직원이든
+ * 같은 email 은 항상 같은 행에서 경쟁한다. email 은 MySQL 의 기본 collation 처럼 대소문자를 구분하지 않도록 소문자로 저장한다.
+ */
+@Entity
+@Getter
+@Table(name = "employee_email_claims")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmployeeEmailClaim {
+
+	@Id
+	private String email;
+
+	@Column(name = "employee_id", nullable = false)
+	private long employeeId;
+
+	@Column(name = "claimed_at", nullable = false)
+	private Instant claimedAt;
+}
@@ -0,0 +1,108 @@
+package io.jaeyeon.springboottesting.model;
+
+import java.lang.reflect.Member;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+/**
+ * DB 를 거치지 않고 전역에서 유일한 id 를 만든다. JavaScript 의 number 로도 정확히 표현되도록 53비트를 상위부터 다음과 같이 나눈다.
+ * <pre>
+ * | 2024-01-01 이후 10ms 단위 (37, 약 43년) | worker (4) | 10ms 안의 순번 (6) | 논리 샤드 (6) |
+ * </pre>
+ * 시간이 상위 비트이므로 id 순서는 대체로 생성 순서와 같다. 논리 샤드는 email 의 해시이므로 id 만으로도, email 만으로도
+ * 같은 샤드를 찾을 수 있다. worker 는 인스턴스마다 달라야 하며
+ * {@link io.jaeyeon.springboottesting.config.EmployeeIdProperties} 가 hibernate 설정 employee.id.worker-id 로 넘겨준다.
+ * 설정 클래스를 읽지 않는 슬라이스 테스트처럼 설정이 없으면 worker 0 을 쓴다.
+ *
+ * <p>worker 하나가 10ms 마다 64개, 초당 6400개까지 id 를 만들고, 넘으면 다음 10ms 를 앞당겨 쓴다.
+ */
+public class EmployeeIdGenerator implements IdentifierGenerator {
+
+	public static final String WORKER_ID_SETTING = "employee.id.worker-id";
+
+	private static final int SHARD_BITS = 6;
+	private static final int SEQUENCE_BITS = 6;
+	private static final int WORKER_BITS = 4;
+	private static final long TICK_MILLIS = 10;
+	public static final int LOGICAL_SHARDS = 1 << SHARD_BITS;
+	public static final int MAX_WORKERS = 1 << WORKER_BITS;
+	private static final int SEQUENCE_MASK = (1 << SEQUENCE_BITS) - 1;
+	private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+	// Hibernate 와 R2DBC 쓰기가 각자 생성기를 만들어도 같은 worker 의 id 가 겹치지 않도록 시계와 순번은 프로세스에서 하나만 둔다.
+	private static final Object LOCK = new Object();
+	private static long lastTick = -1;
+	private static int sequence;
+
+	private final int workerId;
+
+	public EmployeeIdGenerator(GeneratedEmployeeId config, Member member, CustomIdGeneratorCreationContext context) {
+		this(workerId(context.getServiceRegistry().requireService(ConfigurationService.class).getSettings()
+			.get(WORKER_ID_SETTING)));
+	}
+
+	public EmployeeIdGenerator(int workerId) {
+		if (workerId < 0 || workerId >= MAX_WORKERS) {
+			throw new IllegalArgumentException(WORKER_ID_SETTING + " must be between 0 and " + (MAX_WORKERS - 1));
+		}
+		this.workerId = workerId;
+	}
+
+	public static int logicalShardOf(long id) {
+		return (int) (id & (LOGICAL_SHARDS - 1));
+	}
+
+	// MySQL 의 기본 collation 처럼 대소문자를 구분하지 않는다.
+	public static int logicalShardOf(String email) {
+		int hash = email.toLowerCase(Locale.ROOT).hashCode();
+		return (hash ^ (hash >>> 16)) & (LOGICAL_SHARDS - 1);
+	}
+
+	@Override
+	public Object generate(SharedSessionContractImplementor session, Object object) {
+		return nextId(object instanceof Employee employee ? employee.getEmail() : null);
+	}
+
+	/**
+	 * email 의 논리 샤드를 담은 id. email 이 null 이면(변경 로그 등) 임의의 논리 샤드를 쓴다.
+	 */
+	public long nextId(String email) {
+		return nextId(email != null ? logicalShardOf(email) : ThreadLocalRandom.current().nextInt(LOGICAL_SHARDS));
+	}
+
+	/**
+	 * 시계가 뒤로 가거나 한 10ms 안의 순번을 다 쓰면 기다리지 않고 마지막 10ms 의 다음 값을 빌려 쓴다.
+	 */
+	long nextId(int logicalShard) {
+		long tick;
+		int next;
+		synchronized (LOCK) {
+			tick = Math.max((System.currentTimeMillis() - EPOCH_MILLIS) / TICK_MILLIS, lastTick);
+			if (tick == lastTick) {
+				sequence = (sequence + 1) & SEQUENCE_MASK;
+				if (sequence == 0) {
+					tick++;
+				}
+			} else {
+				sequence = 0;
+			}
+			lastTick = tick;
+			next = sequence;
+		}
+
+		return tick << (WORKER_BITS + SEQUENCE_BITS + SHARD_BITS)
+			| (long) workerId << (SEQUENCE_BITS + SHARD_BITS)
+			| (long) next << SHARD_BITS
+			| logicalShard;
+	}
+
+	private static int workerId(Object setting) {
+		return setting == null ? 0 : Integer.parseInt(setting.toString().trim());
+	}
+}
@@ -0,0 +1,32 @@
+package io.jaeyeon.springboottesting.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 논리 샤드가 놓인 물리 샤드. 행이 없는 논리 샤드는 물리 샤드 0 에 있다. 이 테이블 자체는 항상 샤드 0 에 있다.
+ */
+@Entity
+@Getter
+@Table(name = "employee_shard_placement")
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmployeeShardPlacement {
+
+	@Id
+	@Column(name = "logical_shard")
+	private Integer logicalShard;
+
+	@Column(name = "physical_shard", nullable = false)
+	private int physicalShard;
+
+	public static EmployeeShardPlacement of(int logicalShard, int physicalShard) {
+		return new EmployeeShardPlacement(logicalShard, physicalShard);
+	}
+}
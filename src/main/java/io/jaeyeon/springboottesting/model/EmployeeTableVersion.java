@@ -0,0 +1,35 @@
+package io.jaeyeon.springboottesting.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * employees 테이블의 변경이 커밋된 뒤 EmployeeChangeSequencer 가 1씩 올리는 단일 행 카운터.
+ * 목록 API 는 이 값을 ETag 로 써서 테이블을 스캔하지 않고도 변경 여부를 판단한다. 쓰기 트랜잭션은 이 행을 잠그지 않는다.
+ */
+@Entity
+@Getter
+@Table(name = "employee_table_version")
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmployeeTableVersion {
+
+	public static final long ROW_ID = 1L;
+
+	@Id
+	private Long id;
+
+	@Column(nullable = false)
+	private long version;
+
+	// 이 sequence 앞의 변경 로그는 지워졌거나 지워지는 중이다. 샤드마다 따로 지우는 동안에도 변경 피드가 빈 구간을 410 으로 알리도록
+	// EmployeeChangeLogTrimmer 가 지우기 전에 올린다.
+	@Column(name = "trimmed_before")
+	private Long trimmedBefore;
+}
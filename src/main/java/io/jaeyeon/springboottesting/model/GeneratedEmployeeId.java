@@ -0,0 +1,18 @@
+package io.jaeyeon.springboottesting.model;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.*;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * {@link EmployeeIdGenerator} 로 id 를 채번한다.
+ */
+@IdGeneratorType(EmployeeIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface GeneratedEmployeeId {
+}
@@ -0,0 +1,52 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+
+public interface EmployeeChangeRepository extends JpaRepository<EmployeeChange, Long> {
+
+	// 샤드가 여럿이면 sequence 는 샤드마다 차례로 매겨진 뒤 카운터가 오르므로, 카운터(latest)까지만 읽어야 일부 샤드에만
+	// 매겨진 sequence 를 건너뛰지 않는다.
+	@Query("select c from EmployeeChange c where c.sequence > :since and c.sequence <= :latest order by c.sequence, c.id")
+	List<EmployeeChange> findBetween(@Param("since") long since, @Param("latest") long latest, Pageable pageable);
+
+	@Query("select c from EmployeeChange c where c.sequence = :sequence order by c.id")
+	List<EmployeeChange> findBySequence(@Param("sequence") long sequence);
+
+	// 커밋되었지만 아직 sequence 가 없는 변경에 한 번에 같은 sequence 를 매긴다.
+	@Modifying
+	@Query("update EmployeeChange c set c.sequence = :sequence where c.sequence is null")
+	int assignSequence(@Param("sequence") long sequence);
+
+	// 보존 기간이 지나 잘려 나간 구간을 판단하는 데 쓴다.
+	@Query("select min(c.sequence) from EmployeeChange c")
+	Optional<Long> findOldestSequence();
+
+	// cutoff 이후에 기록된 변경 중 가장 오래된 sequence. 이 sequence 부터는 일부라도 보존 기간 안이므로 지우지 않는다.
+	@Query("select min(c.sequence) from EmployeeChange c where c.changedAt >= :cutoff")
+	Optional<Long> findOldestSequenceSince(@Param("cutoff") Instant cutoff);
+
+	@Query("select max(c.sequence) from EmployeeChange c")
+	Optional<Long> findLatestSequence();
+
+	// bound 보다 작은 변경을 sequence 순으로 세어 offset 번째 행의 sequence. 한 번에 지울 sequence 구간을 정하는 데 쓴다.
+	@Query(value = "select change_seq from employee_changes where change_seq < :bound order by change_seq limit 1 offset :offset",
+		nativeQuery = true)
+	Optional<Long> findSequenceAt(@Param("bound") long bound, @Param("offset") int offset);
+
+	// sequence 단위로 통째로 지워, 변경 피드가 일부만 남은 sequence 를 돌려주지 않게 한다. sequence 가 없는 변경은 남긴다.
+	@Transactional
+	@Modifying
+	@Query("delete from EmployeeChange c where c.sequence < :sequence")
+	int trimBeforeSequence(@Param("sequence") long sequence);
+}
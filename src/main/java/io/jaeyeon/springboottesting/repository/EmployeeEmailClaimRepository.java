@@ -0,0 +1,31 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import io.jaeyeon.springboottesting.model.EmployeeEmailClaim;
+
+public interface EmployeeEmailClaimRepository extends JpaRepository<EmployeeEmailClaim, String> {
+
+	// 이미 claim 된 email 이면 0 을 반환한다. 아직 커밋되지 않은 claim 과 겹치면 그 트랜잭션이 끝날 때까지 기다린다.
+	@Modifying
+	@Query(value = "insert ignore into employee_email_claims (email, employee_id, claimed_at)"
+		+ " values (:email, :employeeId, :claimedAt)", nativeQuery = true)
+	int insertIfAbsent(@Param("email") String email, @Param("employeeId") long employeeId,
+		@Param("claimedAt") Instant claimedAt);
+
+	// 확인한 뒤 다른 요청이 먼저 넘겨받았으면 0 을 반환한다.
+	@Modifying
+	@Query("update EmployeeEmailClaim c set c.employeeId = :employeeId, c.claimedAt = :claimedAt"
+		+ " where c.email = :email and c.employeeId = :holder")
+	int takeOver(@Param("email") String email, @Param("holder") long holder, @Param("employeeId") long employeeId,
+		@Param("claimedAt") Instant claimedAt);
+
+	@Modifying
+	@Query("delete from EmployeeEmailClaim c where c.email = :email and c.employeeId = :employeeId")
+	int release(@Param("email") String email, @Param("employeeId") long employeeId);
+}
@@ -0,0 +1,152 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.time.Instant;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.jaeyeon.springboottesting.config.EmployeeIdProperties;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.model.EmployeeIdGenerator;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * EmployeeRepository 의 조회/쓰기 쿼리를 R2DBC 로 실행하는 non-blocking 저장소.
+ * 조회 결과는 구독자의 요청량(backpressure)에 맞춰 행 단위로 흘려보낸다.
+ * 쓰기는 트랜잭션을 열지 않으므로 호출하는 쪽에서 TransactionalOperator 로 묶는다.
+ */
+@Repository
+@Profile("reactive")
+public class EmployeeReactiveRepository {
+
+	private static final String SELECT_EMPLOYEES = "select id, first_name, last_name, email, version from employees where deleted_at is null";
+	private static final String UPDATE_EMPLOYEE = "update employees set first_name = coalesce(:firstName, first_name),"
+		+ " last_name = coalesce(:lastName, last_name), email = coalesce(:email, email),"
+		+ " email_domain = coalesce(:emailDomain, email_domain), version = version + 1"
+		+ " where id = :id and deleted_at is null";
+
+	private final DatabaseClient databaseClient;
+	private final EmployeeIdGenerator idGenerator;
+
+	public EmployeeReactiveRepository(DatabaseClient databaseClient, EmployeeIdProperties idProperties) {
+		this.databaseClient = databaseClient;
+		this.idGenerator = new EmployeeIdGenerator(idProperties.workerId());
+	}
+
+	public Flux<EmployeeView> findAll() {
+		return databaseClient.sql(SELECT_EMPLOYEES + " order by id")
+			.map(EmployeeReactiveRepository::toView)
+			.all();
+	}
+
+	public Flux<EmployeeView> findByIdGreaterThan(long after, int limit) {
+		return databaseClient.sql(SELECT_EMPLOYEES + " and id > :after order by id limit :limit")
+			.bind("after", after)
+			.bind("limit", limit)
+			.map(EmployeeReactiveRepository::toView)
+			.all();
+	}
+
+	public Mono<EmployeeView> findById(Long id) {
+		return databaseClient.sql(SELECT_EMPLOYEES + " and id = :id")
+			.bind("id", id)
+			.map(EmployeeReactiveRepository::toView)
+			.one();
+	}
+
+	public Mono<Boolean> existsById(Long id) {
+		return databaseClient.sql("select count(*) from employees where id = :id and deleted_at is null")
+			.bind("id", id)
+			.map(row -> row.get(0, Long.class))
+			.one()
+			.map(count -> count > 0);
+	}
+
+	/**
+	 * JPA 저장과 같이 애플리케이션에서 채번하고 email_domain 을 채워 넣는다.
+	 *
+	 * @return 저장된 직원
+	 */
+	public Mono<Employee> insert(Employee employee) {
+		Employee saved = Employee.builder()
+			.id(idGenerator.nextId(employee.getEmail()))
+			.firstName(employee.getFirstName())
+			.lastName(employee.getLastName())
+			.email(employee.getEmail())
+			.emailDomain(Employee.emailDomainOf(employee.getEmail()))
+			.version(0L)
+			.build();
+		DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into employees"
+				+ " (id, first_name, last_name, email, email_domain, version)"
+				+ " values (:id, :firstName, :lastName, :email, :emailDomain, 0)")
+			.bind("id", saved.getId());
+		insert = bind(insert, "firstName", saved.getFirstName());
+		insert = bind(insert, "lastName", saved.getLastName());
+		insert = bind(insert, "email", saved.getEmail());
+		insert = bind(insert, "emailDomain", saved.getEmailDomain());
+		return insert.then().thenReturn(saved);
+	}
+
+	/**
+	 * null 이 아닌 필드만 변경한다(EmployeeRepository#updateById / updateByIdAndVersion).
+	 *
+	 * @return 변경된 행 수
+	 */
+	public Mono<Long> update(Long id, Employee employee, Long expectedVersion) {
+		DatabaseClient.GenericExecuteSpec update = databaseClient.sql(expectedVersion == null
+				? UPDATE_EMPLOYEE
+				: UPDATE_EMPLOYEE + " and version = :version")
+			.bind("id", id);
+		if (expectedVersion != null) {
+			update = update.bind("version", expectedVersion);
+		}
+		update = bind(update, "firstName", employee.getFirstName());
+		update = bind(update, "lastName", employee.getLastName());
+		update = bind(update, "email", employee.getEmail());
+		update = bind(update, "emailDomain", Employee.emailDomainOf(employee.getEmail()));
+		return update.fetch().rowsUpdated();
+	}
+
+	/**
+	 * @return 삭제된 행 수
+	 */
+	public Mono<Long> delete(Long id, boolean soft, Instant now) {
+		DatabaseClient.GenericExecuteSpec delete = soft
+			? databaseClient.sql("update employees set deleted_at = :deletedAt, version = version + 1"
+				+ " where id = :id and deleted_at is null").bind("deletedAt", now)
+			: databaseClient.sql("delete from employees where id = :id");
+		return delete.bind("id", id).fetch().rowsUpdated();
+	}
+
+	/**
+	 * sequence 없이 변경 로그를 남긴다. sequence 는 커밋된 뒤 EmployeeChangeSequencer 가 매긴다.
+	 */
+	public Mono<Void> insertChange(long employeeId, EmployeeChange.Type type, Instant changedAt) {
+		return databaseClient.sql("insert into employee_changes (id, change_seq, employee_id, type, changed_at)"
+				+ " values (:id, null, :employeeId, :type, :changedAt)")
+			.bind("id", idGenerator.nextId((String) null))
+			.bind("employeeId", employeeId)
+			.bind("type", type.name())
+			.bind("changedAt", changedAt)
+			.then();
+	}
+
+	private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+		String value) {
+		return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+	}
+
+	private static EmployeeView toView(Readable row) {
+		return new EmployeeView(
+			row.get("id", Long.class),
+			row.get("first_name", String.class),
+			row.get("last_name", String.class),
+			row.get("email", String.class),
+			row.get("version", Long.class));
+	}
+}
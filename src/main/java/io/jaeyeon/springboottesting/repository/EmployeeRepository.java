@@ -1,18 +1,118 @@
 package io.jaeyeon.springboottesting.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.jaeyeon.springboottesting.config.CacheConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
 import io.jaeyeon.springboottesting.model.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeSearchRepository {
 
+	// Hibernate query cache 에는 결과 id 만 저장되고, 엔티티는 2차 캐시에서 읽어온다.
+	@Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, key = "#p0", unless = "#result == null")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<Employee> findByEmail(String email);
 
 	// define custom query using JPQL with named params
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	@Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
 	Employee findByJPQL(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+	// 일괄 등록 시 중복 이메일을 한 번의 IN 쿼리로 확인한다.
+	// soft delete 된 행도 유니크 제약에 걸리므로 @SQLRestriction 이 붙지 않는 native 쿼리로 함께 확인한다.
+	@Query(value = "select email from employees where email in (:emails)", nativeQuery = true)
+	List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+	// soft delete 된 행도 email 을 차지하므로 @SQLRestriction 이 붙지 않는 native 쿼리로 읽는다.
+	@Query(value = "select email from employees where id = :id", nativeQuery = true)
+	Optional<String> findEmailIncludingDeleted(@Param("id") Long id);
+
+	// keyset pagination: id 기준으로 커서 이후의 행만 읽으므로 OFFSET 스캔이 발생하지 않는다.
+	@Query("select new io.jaeyeon.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version)"
+		+ " from Employee e where e.id > :after order by e.id")
+	List<EmployeeView> findViewsAfter(@Param("after") Long after, Pageable pageable);
+
+	// 단건 조회를 모아 한 번의 IN 쿼리로 읽는 EmployeeLookupBatcher 는 호출자 트랜잭션 밖에서 실행되므로 직접 읽기 트랜잭션을 연다.
+	@Transactional(readOnly = true)
+	@Query("select new io.jaeyeon.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version)"
+		+ " from Employee e where e.id in :ids")
+	List<EmployeeView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+	// JDBC 커서에서 fetch size 단위로 행을 읽어오며, 호출하는 쪽에서 Stream 을 닫아야 한다.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new io.jaeyeon.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version)"
+		+ " from Employee e order by e.id")
+	Stream<EmployeeView> streamAllViews();
+
+	// 단일 UPDATE 문으로 null 이 아닌 컬럼만 변경하며, 변경된 행 수를 반환한다.
+	// 엔티티 콜백을 거치지 않으므로 emailDomain 은 호출하는 쪽에서 계산해 넘긴다.
+	@Modifying
+	@Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), e.lastName = coalesce(:lastName, e.lastName),"
+		+ " e.email = coalesce(:email, e.email), e.emailDomain = coalesce(:emailDomain, e.emailDomain),"
+		+ " e.version = e.version + 1 where e.id = :id and e.deletedAt is null")
+	int updateById(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+		@Param("email") String email, @Param("emailDomain") String emailDomain);
+
+	@Modifying
+	@Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), e.lastName = coalesce(:lastName, e.lastName),"
+		+ " e.email = coalesce(:email, e.email), e.emailDomain = coalesce(:emailDomain, e.emailDomain),"
+		+ " e.version = e.version + 1 where e.id = :id and e.version = :version and e.deletedAt is null")
+	int updateByIdAndVersion(@Param("id") Long id, @Param("version") long version, @Param("firstName") String firstName,
+		@Param("lastName") String lastName, @Param("email") String email, @Param("emailDomain") String emailDomain);
+
+	// 목록 중 실제로 있는 id 만 잠근다. 여러 건을 지울 때 지워지지 않은 id 가 변경 로그에 남지 않도록 먼저 호출한다.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e.id from Employee e where e.id in :ids")
+	List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+	// deleteById 는 엔티티를 조회한 뒤 삭제하므로 id 목록을 한 번의 DELETE 문으로 지운다.
+	@Modifying
+	@Query("delete from Employee e where e.id in :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("update Employee e set e.deletedAt = :deletedAt, e.version = e.version + 1"
+		+ " where e.id in :ids and e.deletedAt is null")
+	int softDeleteByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+	// @SQLRestriction 이 JPQL 에 붙어 삭제된 행이 보이지 않으므로 native 쿼리로 지우며, 한 번에 limit 건씩 나누어 지운다.
+	@Transactional
+	@Modifying
+	@Query(value = "delete from employees where deleted_at < :cutoff limit :limit", nativeQuery = true)
+	int purgeDeletedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+	// email_domain 컬럼이 생기기 전에 저장된 행. native 쿼리이므로 soft delete 된 행도 함께 읽는다.
+	@Query(value = "select id, email from employees where email_domain is null and email is not null order by id limit :limit",
+		nativeQuery = true)
+	List<EmailRow> findWithoutEmailDomain(@Param("limit") int limit);
+
+	// 도메인은 Employee.emailDomainOf 로 계산해 넘기므로 새로 저장되는 행과 같은 규칙으로 채워진다.
+	@Modifying
+	@Query(value = "update employees set email_domain = :emailDomain where id in (:ids) and email_domain is null",
+		nativeQuery = true)
+	int fillEmailDomain(@Param("ids") Collection<Long> ids, @Param("emailDomain") String emailDomain);
+
+	interface EmailRow {
+
+		Long getId();
+
+		String getEmail();
+	}
 }
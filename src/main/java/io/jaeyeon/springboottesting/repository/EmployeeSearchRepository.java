@@ -0,0 +1,18 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.util.List;
+
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+
+/**
+ * 조건 조합에 따라 WHERE 절이 달라지는 검색 쿼리를 위한 custom repository fragment.
+ */
+public interface EmployeeSearchRepository {
+
+	List<EmployeeView> search(EmployeeSearchCondition condition, long after, int limit);
+
+	// 검색 조건과 같은 WHERE 절로 after 이후의 id 를 limit 건 읽고 잠근다(SELECT ... FOR UPDATE).
+	// 조건 삭제가 한 페이지씩 지우면서 실제로 지운 id 를 변경 로그에 남기는 데 쓰므로 트랜잭션 안에서 호출해야 한다.
+	List<Long> findIdsMatching(EmployeeSearchCondition condition, long after, int limit);
+}
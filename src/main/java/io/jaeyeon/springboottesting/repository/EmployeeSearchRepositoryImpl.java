@@ -0,0 +1,92 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.util.StringUtils;
+
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class EmployeeSearchRepositoryImpl implements EmployeeSearchRepository {
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	private final EntityManager entityManager;
+
+	/**
+	 * 입력된 조건만 WHERE 절에 넣는다. 이름은 LIKE 'x%' 접두어 검색만 허용해 인덱스 range scan 이 되도록 하고,
+	 * 도메인은 정규화된 email_domain 컬럼과 동등 비교한다.
+	 */
+	@Override
+	public List<EmployeeView> search(EmployeeSearchCondition condition, long after, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<EmployeeView> query = cb.createQuery(EmployeeView.class);
+		Root<Employee> e = query.from(Employee.class);
+
+		List<Predicate> predicates = predicates(cb, e, condition);
+		predicates.add(cb.greaterThan(e.get("id"), after));
+
+		query.select(cb.construct(EmployeeView.class,
+				e.get("id"), e.get("firstName"), e.get("lastName"), e.get("email"), e.get("version")))
+			.where(predicates.toArray(Predicate[]::new))
+			.orderBy(cb.asc(e.get("id")));
+
+		return entityManager.createQuery(query)
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
+	@Override
+	public List<Long> findIdsMatching(EmployeeSearchCondition condition, long after, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Employee> e = query.from(Employee.class);
+
+		List<Predicate> predicates = predicates(cb, e, condition);
+		predicates.add(cb.greaterThan(e.get("id"), after));
+
+		query.select(e.get("id"))
+			.where(predicates.toArray(Predicate[]::new))
+			.orderBy(cb.asc(e.get("id")));
+		return entityManager.createQuery(query)
+			.setMaxResults(limit)
+			.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+			.getResultList();
+	}
+
+	private static List<Predicate> predicates(CriteriaBuilder cb, Root<Employee> e, EmployeeSearchCondition condition) {
+		List<Predicate> predicates = new ArrayList<>();
+		if (StringUtils.hasText(condition.firstName())) {
+			predicates.add(cb.like(e.get("firstName"), prefixPattern(condition.firstName()), LIKE_ESCAPE));
+		}
+		if (StringUtils.hasText(condition.lastName())) {
+			predicates.add(cb.like(e.get("lastName"), prefixPattern(condition.lastName()), LIKE_ESCAPE));
+		}
+		if (StringUtils.hasText(condition.emailDomain())) {
+			predicates.add(cb.equal(e.get("emailDomain"), condition.emailDomain().trim().toLowerCase(Locale.ROOT)));
+		}
+		return predicates;
+	}
+
+	private static String prefixPattern(String value) {
+		StringBuilder pattern = new StringBuilder();
+		for (char c : value.trim().toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				pattern.append(LIKE_ESCAPE);
+			}
+			pattern.append(c);
+		}
+		return pattern.append('%').toString();
+	}
+}
@@ -0,0 +1,58 @@
+package io.jaeyeon.springboottesting.repository;
+
+import static io.jaeyeon.springboottesting.model.EmployeeIdGenerator.*;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.jaeyeon.springboottesting.model.EmployeeShardPlacement;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 논리 샤드(id 하위 9비트) → 물리 샤드 배치. employee_shard_placement 테이블을 메모리에 올려 두고,
+ * 다른 인스턴스가 바꾼 배치는 placement-refresh-interval 마다 다시 읽어 반영한다.
+ *
+ * <p>배치는 샤드를 늘릴 때 비어 있는 논리 샤드를 새 샤드에 두는 용도로만 바꾼다. 행이 있는 논리 샤드를 옮기는 재분배 도구는
+ * 제공하지 않으므로, 배치를 바꾸기 전에 그 논리 샤드의 행을 직접 옮겨 두어야 한다.
+ */
+public class EmployeeShardMap {
+
+	private final EmployeeShardPlacementRepository placementRepository;
+	private final int physicalShardCount;
+
+	private volatile int[] physicalShards = new int[LOGICAL_SHARDS];
+
+	public EmployeeShardMap(EmployeeShardPlacementRepository placementRepository, int physicalShardCount) {
+		this.placementRepository = placementRepository;
+		this.physicalShardCount = physicalShardCount;
+	}
+
+	@PostConstruct
+	@Scheduled(fixedDelayString = "${employee.sharding.placement-refresh-interval:PT10S}")
+	public void refresh() {
+		int[] placement = new int[LOGICAL_SHARDS];
+		for (EmployeeShardPlacement row : placementRepository.findAll()) {
+			if (row.getPhysicalShard() < 0 || row.getPhysicalShard() >= physicalShardCount) {
+				throw new IllegalStateException("Logical shard " + row.getLogicalShard() + " is placed on physical shard "
+					+ row.getPhysicalShard() + ", but there are " + physicalShardCount);
+			}
+			placement[row.getLogicalShard()] = row.getPhysicalShard();
+		}
+		physicalShards = placement;
+	}
+
+	public int getPhysicalShardCount() {
+		return physicalShardCount;
+	}
+
+	public int physicalShardOf(int logicalShard) {
+		return physicalShards[logicalShard];
+	}
+
+	public int physicalShardOfId(long id) {
+		return physicalShardOf(logicalShardOf(id));
+	}
+
+	public int physicalShardOfEmail(String email) {
+		return physicalShardOf(logicalShardOf(email));
+	}
+}
@@ -0,0 +1,8 @@
+package io.jaeyeon.springboottesting.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import io.jaeyeon.springboottesting.model.EmployeeShardPlacement;
+
+public interface EmployeeShardPlacementRepository extends JpaRepository<EmployeeShardPlacement, Integer> {
+}
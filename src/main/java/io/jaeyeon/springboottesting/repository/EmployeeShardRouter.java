@@ -0,0 +1,180 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.jaeyeon.springboottesting.config.ShardContext;
+import io.jaeyeon.springboottesting.config.ShardRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 직원 데이터(employees, employee_changes)를 다루는 작업을 그 행이 있는 물리 샤드로 보낸다. 단건 작업은 id(새 직원은 email)의
+ * 논리 샤드가 놓인 샤드에서, 목록 / 검색 / 변경 로그 조회는 모든 샤드에서 동시에 실행한 결과를 합친다(scatter-gather).
+ *
+ * <p>샤드가 설정되지 않았으면(ShardingConfig 가 꺼져 있으면) 샤드 0 하나뿐이고, 모든 작업을 호출한 스레드에서 그대로 실행하므로
+ * 호출한 쪽의 트랜잭션에 그대로 참여한다.
+ *
+ * <p>샤드가 여럿이면 {@link ShardRoutingDataSource} 가 트랜잭션의 첫 SQL 에서 샤드를 고르므로 한 트랜잭션은 한 샤드만 쓴다.
+ * 그래서 {@link #onShard} 는 호출한 쪽 트랜잭션과 별개인 새 트랜잭션을 그 샤드에서 열고, 여러 샤드에 걸친 쓰기는 샤드마다 따로
+ * 커밋된다.
+ */
+@Component
+public class EmployeeShardRouter {
+
+	// 샤드가 하나뿐이면 null
+	private final EmployeeShardMap shardMap;
+	private final TransactionTemplate readTransaction;
+	private final TransactionTemplate writeTransaction;
+	private final ExecutorService executor;
+
+	@Autowired
+	public EmployeeShardRouter(ObjectProvider<EmployeeShardMap> shardMap, PlatformTransactionManager transactionManager) {
+		this(shardMap.getIfAvailable(), transactionManager);
+	}
+
+	private EmployeeShardRouter(EmployeeShardMap shardMap, PlatformTransactionManager transactionManager) {
+		this.shardMap = shardMap;
+		if (shardMap == null) {
+			this.readTransaction = null;
+			this.writeTransaction = null;
+			this.executor = null;
+			return;
+		}
+		this.writeTransaction = new TransactionTemplate(transactionManager);
+		this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.readTransaction = new TransactionTemplate(transactionManager, writeTransaction);
+		this.readTransaction.setReadOnly(true);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	/**
+	 * 샤드가 하나뿐인 라우터. 모든 작업을 호출한 스레드에서 그대로 실행한다.
+	 */
+	public static EmployeeShardRouter unsharded() {
+		return new EmployeeShardRouter((EmployeeShardMap) null, null);
+	}
+
+	public boolean isSharded() {
+		return shardMap != null;
+	}
+
+	public int getPhysicalShardCount() {
+		return shardMap == null ? 1 : shardMap.getPhysicalShardCount();
+	}
+
+	public int physicalShardOfId(long id) {
+		return shardMap == null ? 0 : shardMap.physicalShardOfId(id);
+	}
+
+	// email 이 없는 행은 저장되지 않으므로 샤드 0 에서 검증만 한다.
+	public int physicalShardOfEmail(String email) {
+		return shardMap == null || email == null ? 0 : shardMap.physicalShardOfEmail(email);
+	}
+
+	/**
+	 * physicalShard 를 현재 스레드의 샤드로 정해 action 을 실행한다. 트랜잭션은 열지 않으므로 action 안에서 열어야 하며,
+	 * 이미 SQL 을 실행한 트랜잭션 안에서 호출하면 그 트랜잭션의 샤드를 그대로 쓴다.
+	 */
+	public <T> T routeTo(int physicalShard, Supplier<T> action) {
+		return shardMap == null ? action.get() : ShardContext.callOn(physicalShard, action);
+	}
+
+	/**
+	 * physicalShard 의 트랜잭션에서 action 을 실행한다. 샤드가 하나면 호출한 쪽 트랜잭션에 참여하고,
+	 * 여럿이면 호출한 쪽 트랜잭션을 잠시 멈추고 그 샤드에서 새 트랜잭션을 연다.
+	 */
+	public <T> T onShard(int physicalShard, boolean readOnly, Supplier<T> action) {
+		if (shardMap == null) {
+			return action.get();
+		}
+		TransactionTemplate transaction = readOnly ? readTransaction : writeTransaction;
+		return ShardContext.callOn(physicalShard, () -> transaction.execute(status -> action.get()));
+	}
+
+	/**
+	 * ids 를 샤드별로 나누어 각 샤드에서 action 을 실행하고 결과를 이어 붙인다. 읽기는 샤드마다 동시에, 쓰기는 샤드 번호 순서대로
+	 * 실행한다. 샤드가 하나면 ids 전체로 한 번 실행한다.
+	 */
+	public <T> List<T> onShardsOf(Collection<Long> ids, boolean readOnly, Function<List<Long>, List<T>> action) {
+		if (shardMap == null) {
+			return action.apply(List.copyOf(ids));
+		}
+		Map<Integer, List<Long>> idsByShard = ids.stream()
+			.collect(Collectors.groupingBy(shardMap::physicalShardOfId, TreeMap::new, Collectors.toList()));
+		if (readOnly) {
+			return gather(idsByShard.entrySet().stream()
+				.map(shard -> CompletableFuture.supplyAsync(
+					() -> onShard(shard.getKey(), true, () -> action.apply(shard.getValue())), executor))
+				.toList());
+		}
+		List<T> results = new ArrayList<>();
+		idsByShard.forEach((shard, shardIds) -> results.addAll(onShard(shard, false, () -> action.apply(shardIds))));
+		return results;
+	}
+
+	/**
+	 * 모든 샤드에서 읽기 전용 query 를 동시에 실행해 결과를 합친다.
+	 */
+	public <T> List<T> onEveryShard(Supplier<List<T>> query) {
+		if (shardMap == null) {
+			return query.get();
+		}
+		return gather(IntStream.range(0, shardMap.getPhysicalShardCount())
+			.mapToObj(shard -> CompletableFuture.supplyAsync(() -> onShard(shard, true, query), executor))
+			.toList());
+	}
+
+	/**
+	 * 각 샤드에서 order 순서로 최대 limit 건을 읽는 query 를 모든 샤드에서 실행해, 합친 결과의 앞 limit 건을 order 순서로 돌려준다.
+	 * keyset 페이징에서는 샤드마다 같은 커서로 읽으면 되므로 다음 페이지도 그대로 이어진다.
+	 */
+	public <T> List<T> onEveryShard(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+		if (shardMap == null) {
+			return query.get();
+		}
+		List<T> results = onEveryShard(query);
+		results.sort(order);
+		return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+	}
+
+	@PreDestroy
+	void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T> List<T> gather(List<CompletableFuture<List<T>>> futures) {
+		List<T> results = new ArrayList<>();
+		try {
+			for (CompletableFuture<List<T>> future : futures) {
+				results.addAll(future.join());
+			}
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		return results;
+	}
+}
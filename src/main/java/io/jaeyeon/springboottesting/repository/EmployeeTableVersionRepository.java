@@ -0,0 +1,46 @@
+package io.jaeyeon.springboottesting.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.jaeyeon.springboottesting.model.EmployeeTableVersion;
+import jakarta.persistence.LockModeType;
+
+public interface EmployeeTableVersionRepository extends JpaRepository<EmployeeTableVersion, Long> {
+
+	@Query("select v.version from EmployeeTableVersion v where v.id = " + EmployeeTableVersion.ROW_ID)
+	Optional<Long> findCurrentVersion();
+
+	// sequence 를 매기는 동안 다른 인스턴스의 EmployeeChangeSequencer 를 막는다. 쓰기 트랜잭션은 이 행을 잠그지 않는다.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select v from EmployeeTableVersion v where v.id = " + EmployeeTableVersion.ROW_ID)
+	Optional<EmployeeTableVersion> lockRow();
+
+	@Query("select v.trimmedBefore from EmployeeTableVersion v where v.id = " + EmployeeTableVersion.ROW_ID)
+	Optional<Long> findTrimmedBefore();
+
+	// 아직 행이 없으면 0 을 반환한다. 행은 기동 시 EmployeeTableVersionInitializer 가 만든다.
+	@Modifying
+	@Query("update EmployeeTableVersion v set v.version = v.version + 1 where v.id = " + EmployeeTableVersion.ROW_ID)
+	int increment();
+
+	// 내려가지 않도록 더 큰 값으로만 바꾼다.
+	@Transactional
+	@Modifying
+	@Query("update EmployeeTableVersion v set v.trimmedBefore = :bound where v.id = " + EmployeeTableVersion.ROW_ID
+		+ " and (v.trimmedBefore is null or v.trimmedBefore < :bound)")
+	int raiseTrimmedBefore(@Param("bound") long bound);
+
+	// 여러 인스턴스가 동시에 기동해도 행이 하나만 생기도록 이미 있으면 무시한다.
+	@Transactional
+	@Modifying
+	@Query(value = "insert ignore into employee_table_version (id, version) values (" + EmployeeTableVersion.ROW_ID + ", 0)",
+		nativeQuery = true)
+	int insertIfAbsent();
+}
@@ -0,0 +1,141 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.jaeyeon.springboottesting.dto.EmployeeChangePage;
+import io.jaeyeon.springboottesting.dto.EmployeeChangeView;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.ChangeFeedExpiredException;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * employee_changes 로그를 sequence 커서로 읽어 주는 변경 피드.
+ *
+ * <p>long-poll 대기는 이 인스턴스에서 커밋된 변경으로만 깨어난다. 다른 인스턴스의 변경은 대기 시간이 끝난 뒤
+ * 다음 요청에서 읽힌다.
+ *
+ * <p>변경 로그는 직원 행과 같은 샤드에 있으므로, 샤드가 여럿이면 모든 샤드에서 읽어 sequence 순서로 합친다.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeChangeFeedService {
+
+	private static final Comparator<EmployeeChange> BY_SEQUENCE = Comparator.comparing(EmployeeChange::getSequence)
+		.thenComparing(EmployeeChange::getId);
+
+	private final EmployeeChangeRepository changeRepository;
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeTableVersionRepository tableVersionRepository;
+	private final EmployeeShardRouter shardRouter;
+
+	private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * since 이후의 변경을 sequence 순서로 최대 limit 건 돌려준다. 같은 sequence 의 변경은 한 페이지에 모두 담기도록
+	 * limit 에 걸려 잘린 마지막 sequence 는 다음 페이지로 넘기며, 한 sequence 가 limit 보다 크면 그 sequence 만 통째로 돌려준다.
+	 *
+	 * 읽기 전용 트랜잭션은 복제본으로 가므로, 요청마다 지연이 다른 복제본에서 읽어 커서가 뒤로 가지 않도록 primary 에서 읽는다.
+	 *
+	 * @throws ChangeFeedExpiredException since 이후의 변경 일부가 보존 기간이 지나 삭제된 경우
+	 */
+	@Transactional
+	public EmployeeChangePage getChanges(long since, int limit) {
+		long latest = tableVersionRepository.findCurrentVersion().orElse(0L);
+		// 샤드마다 따로 지우는 동안에는 남은 가장 오래된 sequence 만으로는 빈 구간을 알 수 없으므로 지운 경계도 함께 본다.
+		long oldest = Math.max(tableVersionRepository.findTrimmedBefore().orElse(0L),
+			shardRouter.onEveryShard(() -> changeRepository.findOldestSequence().stream().toList()).stream()
+				.min(Long::compare)
+				.orElse(latest + 1));
+		if (since + 1 < oldest) {
+			throw new ChangeFeedExpiredException("Changes after " + since + " are no longer retained, oldest is " + oldest);
+		}
+
+		List<EmployeeChange> changes = shardRouter.onEveryShard(
+			() -> changeRepository.findBetween(since, latest, PageRequest.ofSize(limit)), BY_SEQUENCE, limit);
+		if (changes.size() == limit) {
+			long last = changes.get(limit - 1).getSequence();
+			changes = changes.stream().filter(change -> change.getSequence() < last).toList();
+			if (changes.isEmpty()) {
+				changes = shardRouter.onEveryShard(() -> changeRepository.findBySequence(last), BY_SEQUENCE, Integer.MAX_VALUE);
+			}
+		}
+		if (changes.isEmpty()) {
+			return EmployeeChangePage.empty(since);
+		}
+
+		Set<Long> ids = changes.stream()
+			.filter(change -> change.getType() != EmployeeChange.Type.DELETED)
+			.map(EmployeeChange::getEmployeeId)
+			.collect(Collectors.toSet());
+		Map<Long, EmployeeView> employees = shardRouter.onShardsOf(ids, true, employeeRepository::findViewsByIdIn)
+			.stream()
+			.collect(Collectors.toMap(EmployeeView::id, Function.identity()));
+
+		List<EmployeeChangeView> views = new ArrayList<>(changes.size());
+		for (EmployeeChange change : changes) {
+			views.add(EmployeeChangeView.of(change, employees.get(change.getEmployeeId())));
+		}
+		return new EmployeeChangePage(views, changes.get(changes.size() - 1).getSequence());
+	}
+
+	/**
+	 * since 이후의 변경이 커밋되거나 timeout 이 지나면 완료되는 future. 완료는 가상 스레드에서 일어나므로
+	 * 이어지는 작업이 커밋한 스레드나 타이머 스레드를 잡아 두지 않는다. 현재 sequence 는 getChanges 와 같이 primary 에서 읽는다.
+	 */
+	@Transactional
+	public CompletableFuture<Void> awaitChangeAfter(long since, Duration timeout) {
+		Waiter waiter = new Waiter(since, new CompletableFuture<>());
+		waiters.add(waiter);
+		waiter.future().whenComplete((ignored, e) -> waiters.remove(waiter));
+
+		// 등록 전에 커밋된 변경을 놓치지 않도록 등록한 뒤에 현재 sequence 를 확인한다.
+		if (tableVersionRepository.findCurrentVersion().orElse(0L) > since) {
+			waiter.future().completeAsync(() -> null, executor);
+		} else {
+			waiter.future().completeAsync(() -> null,
+				CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS, executor));
+		}
+		return waiter.future();
+	}
+
+	@TransactionalEventListener
+	public void onChange(EmployeeChangedEvent event) {
+		for (Waiter waiter : waiters) {
+			if (waiter.since() < event.sequence()) {
+				waiter.future().completeAsync(() -> null, executor);
+			}
+		}
+	}
+
+	@PreDestroy
+	void close() {
+		executor.shutdownNow();
+	}
+
+	private record Waiter(long since, CompletableFuture<Void> future) {
+	}
+}
@@ -0,0 +1,86 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 보존 기간이 지난 변경 로그를 sequence 단위로, 한 번에 대략 batchSize 건씩 나누어 삭제한다.
+ * 한 sequence 의 변경은 항상 한 문장에서 함께 지워지므로, 남아 있는 가장 오래된 sequence 는 언제나 온전하다.
+ * 그보다 오래된 커서로 요청한 클라이언트는 410 을 받고 전체 목록으로 다시 동기화한다.
+ *
+ * <p>샤드가 여럿이면 배치마다 모든 샤드에서 같은 sequence 앞까지 지우고, 지우기 전에 그 경계를 employee_table_version 에
+ * 남겨 샤드 사이에서 지우는 시점이 어긋나도 변경 피드가 빈 구간을 돌려주지 않게 한다.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeLogTrimmer {
+
+	private final EmployeeChangeRepository changeRepository;
+	private final EmployeeTableVersionRepository tableVersionRepository;
+	private final EmployeeShardRouter shardRouter;
+	private final Duration retention;
+	private final int batchSize;
+
+	public EmployeeChangeLogTrimmer(EmployeeChangeRepository changeRepository,
+		EmployeeTableVersionRepository tableVersionRepository, EmployeeShardRouter shardRouter,
+		@Value("${employee.changes.retention:7d}") Duration retention,
+		@Value("${employee.changes.trim-batch-size:1000}") int batchSize) {
+		this.changeRepository = changeRepository;
+		this.tableVersionRepository = tableVersionRepository;
+		this.shardRouter = shardRouter;
+		this.retention = retention;
+		this.batchSize = batchSize;
+	}
+
+	@Scheduled(fixedDelayString = "${employee.changes.trim-interval:PT1H}")
+	public int trim() {
+		Instant cutoff = Instant.now().minus(retention);
+		// cutoff 이후 변경이 하나라도 있는 sequence 부터는 남긴다. 그런 변경이 없으면 sequence 가 매겨진 변경을 모두 지운다.
+		long bound = shardRouter.onEveryShard(() -> changeRepository.findOldestSequenceSince(cutoff).stream().toList())
+			.stream()
+			.min(Long::compare)
+			.or(() -> shardRouter.onEveryShard(() -> changeRepository.findLatestSequence().stream().toList()).stream()
+				.max(Long::compare)
+				.map(latest -> latest + 1))
+			.orElse(0L);
+
+		int total = 0;
+		int trimmed;
+		do {
+			long batchBound = shardRouter.onEveryShard(() -> List.of(nextBatchBound(bound))).stream()
+				.min(Long::compare)
+				.orElse(bound);
+			tableVersionRepository.raiseTrimmedBefore(batchBound);
+			trimmed = 0;
+			for (int shard = 0; shard < shardRouter.getPhysicalShardCount(); shard++) {
+				trimmed += shardRouter.onShard(shard, false, () -> changeRepository.trimBeforeSequence(batchBound));
+			}
+			total += trimmed;
+		} while (trimmed > 0);
+
+		if (total > 0) {
+			log.info("Trimmed {} employee changes recorded before {}", total, cutoff);
+		}
+		return total;
+	}
+
+	// batchSize 번째 행이 속한 sequence 앞까지를 지운다. 가장 오래된 sequence 하나가 batchSize 보다 크면 그 sequence 만 지운다.
+	private long nextBatchBound(long bound) {
+		return changeRepository.findSequenceAt(bound, batchSize)
+			.map(sequence -> changeRepository.findOldestSequence()
+				.filter(oldest -> oldest.equals(sequence))
+				.map(oldest -> oldest + 1)
+				.orElse(sequence))
+			.orElse(bound);
+	}
+}
@@ -0,0 +1,119 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.jaeyeon.springboottesting.model.EmployeeTableVersion;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 커밋된 변경 로그에 sequence 를 매기고 테이블 변경 카운터를 올린다.
+ *
+ * <p>쓰기 트랜잭션 안에서 카운터 행을 올리면 모든 쓰기가 그 행의 락을 커밋까지 기다리게 되므로, 쓰기는 sequence 없이
+ * 로그만 남기고 커밋 직후 짧은 별도 트랜잭션에서 여기서 sequence 를 매긴다. 카운터 행 락은 이 트랜잭션끼리만 경쟁하며,
+ * 한 번에 그때까지 커밋된 변경을 모두 같은 sequence 로 묶는다. sequence 를 매기는 트랜잭션이 카운터 행 락 순서대로
+ * 커밋되므로 sequence 는 커밋 순서대로 보이고, 아직 커밋되지 않은 변경은 다음 sequence 를 받는다.
+ *
+ * <p>READ COMMITTED 로 실행해 아직 커밋되지 않은 변경 로그 행이나 그 사이 gap 을 잠그지 않는다. 커밋 직후 실행이 실패하거나
+ * 그 전에 인스턴스가 내려가 남은 변경은 sequence-interval 마다 다시 처리한다.
+ *
+ * <p>샤드가 여럿이면 카운터 행(샤드 0)을 잠근 채 샤드마다 따로 커밋하며 같은 sequence 를 매기고, 마지막에 카운터를 올린다.
+ * 변경 피드는 카운터까지만 읽으므로 일부 샤드에만 매겨진 sequence 는 보이지 않는다. 카운터를 올리기 전에 실패하면 다음 실행이
+ * 같은 sequence 를 다시 매기므로 이미 매겨진 변경과 섞여도 그대로 하나의 sequence 가 된다.
+ */
+@Slf4j
+@Component
+public class EmployeeChangeSequencer {
+
+	private final EmployeeTableVersionRepository tableVersionRepository;
+	private final EmployeeChangeRepository changeRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EmployeeShardRouter shardRouter;
+	private final TransactionTemplate transaction;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public EmployeeChangeSequencer(EmployeeTableVersionRepository tableVersionRepository,
+		EmployeeChangeRepository changeRepository, ApplicationEventPublisher eventPublisher,
+		EmployeeShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+		this.tableVersionRepository = tableVersionRepository;
+		this.changeRepository = changeRepository;
+		this.eventPublisher = eventPublisher;
+		this.shardRouter = shardRouter;
+		// 커밋 이후 콜백에서도 원래 트랜잭션에 참여하지 않도록 새 트랜잭션을 연다.
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+	}
+
+	/**
+	 * 쓰기 요청이 끝나기 전에 ETag 와 변경 피드에 반영되도록 커밋한 스레드에서 바로 실행한다.
+	 * 실패해도 이미 커밋된 쓰기를 실패로 돌려주지 않고 다음 주기에 맡긴다.
+	 */
+	@TransactionalEventListener
+	public void onChangesRecorded(EmployeeChangesRecordedEvent event) {
+		sequenceQuietly();
+	}
+
+	/**
+	 * JPA 트랜잭션 밖에서 커밋된 변경(R2DBC 쓰기)을 위해 호출한 스레드를 막지 않고 가상 스레드에서 sequence 를 매긴다.
+	 */
+	public void sequenceAsync() {
+		executor.execute(this::sequenceQuietly);
+	}
+
+	/**
+	 * @return 새로 매긴 sequence, 매길 변경이 없었으면 0
+	 */
+	@Scheduled(fixedDelayString = "${employee.changes.sequence-interval:PT1S}")
+	public long sequence() {
+		// 다른 샤드의 쓰기가 커밋된 직후에도 호출되므로 카운터가 있는 샤드 0 을 명시한다.
+		return shardRouter.routeTo(0, () -> transaction.execute(status -> {
+			EmployeeTableVersion current = tableVersionRepository.lockRow()
+				.orElseThrow(() -> new IllegalStateException(
+					"employee_table_version row " + EmployeeTableVersion.ROW_ID + " is missing"));
+			long next = current.getVersion() + 1;
+			if (assignSequence(next) == 0) {
+				return 0L;
+			}
+			tableVersionRepository.increment();
+			eventPublisher.publishEvent(new EmployeeChangedEvent(next));
+			return next;
+		}));
+	}
+
+	@PreDestroy
+	void close() {
+		executor.shutdownNow();
+	}
+
+	private int assignSequence(long next) {
+		if (!shardRouter.isSharded()) {
+			return changeRepository.assignSequence(next);
+		}
+		int assigned = 0;
+		for (int shard = 0; shard < shardRouter.getPhysicalShardCount(); shard++) {
+			assigned += shardRouter.routeTo(shard, () -> transaction.execute(status -> changeRepository.assignSequence(next)));
+		}
+		return assigned;
+	}
+
+	private void sequenceQuietly() {
+		try {
+			sequence();
+		} catch (RuntimeException e) {
+			log.warn("Failed to sequence employee changes, retrying on the next run", e);
+		}
+	}
+}
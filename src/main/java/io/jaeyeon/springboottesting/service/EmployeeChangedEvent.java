@@ -0,0 +1,7 @@
+package io.jaeyeon.springboottesting.service;
+
+/**
+ * EmployeeChangeSequencer 가 변경 로그에 sequence 를 매긴 트랜잭션 안에서 발행한다. 리스너는 커밋 이후에 받는다.
+ */
+public record EmployeeChangedEvent(long sequence) {
+}
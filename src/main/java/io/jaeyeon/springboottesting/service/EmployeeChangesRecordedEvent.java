@@ -0,0 +1,8 @@
+package io.jaeyeon.springboottesting.service;
+
+/**
+ * EmployeeService 가 sequence 없이 변경 로그를 남긴 트랜잭션 안에서 발행한다.
+ * EmployeeChangeSequencer 가 커밋 이후에 받아 sequence 를 매긴다.
+ */
+public record EmployeeChangesRecordedEvent() {
+}
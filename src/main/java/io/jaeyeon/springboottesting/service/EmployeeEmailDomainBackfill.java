@@ -0,0 +1,74 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * email_domain 컬럼이 추가되기 전에 저장된 행은 값이 null 이라 도메인 검색 / 삭제 조건에 걸리지 않는다.
+ * 기동이 끝나면 null 인 행을 batchSize 건씩 읽어 채우며, 모두 채워진 뒤에는 빈 SELECT 한 번으로 끝난다.
+ *
+ * <p>도메인은 SQL 이 아니라 저장 시와 같은 {@link Employee#emailDomainOf} 로 계산하므로, '@' 가 여러 개인 주소도
+ * 새로 저장되는 행과 같은 값(마지막 '@' 뒤)이 된다. 배치 안에서는 도메인마다 UPDATE 한 번으로 채운다.
+ * 샤드가 여럿이면 샤드마다 차례로 채운다.
+ */
+@Slf4j
+@Component
+public class EmployeeEmailDomainBackfill {
+
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeShardRouter shardRouter;
+	private final TransactionTemplate transaction;
+	private final int batchSize;
+
+	public EmployeeEmailDomainBackfill(EmployeeRepository employeeRepository, EmployeeShardRouter shardRouter,
+		PlatformTransactionManager transactionManager,
+		@Value("${employee.email-domain.backfill-batch-size:1000}") int batchSize) {
+		this.employeeRepository = employeeRepository;
+		this.shardRouter = shardRouter;
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public int backfill() {
+		int total = 0;
+		for (int shard = 0; shard < shardRouter.getPhysicalShardCount(); shard++) {
+			total += shardRouter.routeTo(shard, this::backfillShard);
+		}
+
+		if (total > 0) {
+			log.info("Backfilled email_domain for {} employees", total);
+		}
+		return total;
+	}
+
+	private int backfillShard() {
+		int total = 0;
+		int read;
+		do {
+			read = transaction.execute(status -> {
+				List<EmployeeRepository.EmailRow> rows = employeeRepository.findWithoutEmailDomain(batchSize);
+				Map<String, List<Long>> idsByDomain = rows.stream()
+					.collect(Collectors.groupingBy(row -> Employee.emailDomainOf(row.getEmail()),
+						Collectors.mapping(EmployeeRepository.EmailRow::getId, Collectors.toList())));
+				idsByDomain.forEach((domain, ids) -> employeeRepository.fillEmailDomain(ids, domain));
+				return rows.size();
+			});
+			total += read;
+		} while (read == batchSize);
+		return total;
+	}
+}
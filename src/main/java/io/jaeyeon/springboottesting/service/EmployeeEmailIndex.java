@@ -0,0 +1,110 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.model.EmployeeEmailClaim;
+import io.jaeyeon.springboottesting.repository.EmployeeEmailClaimRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샤드가 여럿일 때 email 의 전역 유일성을 지킨다. uk_employees_email 은 한 샤드 안에서만 검사하는데, email 을 바꾼 직원은
+ * id 의 샤드에 그대로 남으므로 다른 샤드에 같은 email 이 생길 수 있다. 그래서 email 마다 그 홈 샤드에 claim
+ * ({@link EmployeeEmailClaim})을 두고 한 직원만 갖게 한다. 샤드가 하나면 유니크 제약으로 충분하므로 아무것도 하지 않는다.
+ *
+ * <p>새 직원은 email 의 홈 샤드에 저장되므로 직원 행과 같은 트랜잭션에서 claim 한다. email 을 바꿀 때는 새 email 의
+ * claim 을 먼저 커밋하고 직원 행을 고친 뒤, 실패하면 새 claim 을, 성공하면 이전 email 의 claim 을 지운다.
+ *
+ * <p>직원 행이 삭제 / purge 되었거나 중간에 실패해 직원 행의 email 과 맞지 않는 claim 은 다음에 같은 email 을 claim 할 때
+ * 넘겨받는다. email 을 바꾸는 중에는 직원 행이 아직 이전 email 이므로, email 이 다른 claim 은 CLAIM_GRACE 가 지난 뒤에만
+ * 넘겨받는다. 샤드를 켜기 전에 email 을 바꾼 직원은 claim 이 없으므로 그 email 의 홈 샤드에 있는 유니크 제약만 적용된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeEmailIndex {
+
+	private static final Duration CLAIM_GRACE = Duration.ofMinutes(1);
+
+	private final EmployeeEmailClaimRepository claimRepository;
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeShardRouter shardRouter;
+
+	public boolean isEnabled() {
+		return shardRouter.isSharded();
+	}
+
+	/**
+	 * 현재 트랜잭션에서 email 을 employeeId 에 묶는다. 트랜잭션은 email 의 홈 샤드에서 열려 있어야 한다.
+	 *
+	 * @throws DuplicateEmailException 다른 직원이 email 을 쓰고 있는 경우
+	 */
+	public void claim(String email, long employeeId) {
+		if (!isEnabled()) {
+			return;
+		}
+		String key = email.toLowerCase(Locale.ROOT);
+		Instant now = Instant.now();
+		if (claimRepository.insertIfAbsent(key, employeeId, now) == 1) {
+			return;
+		}
+		Optional<EmployeeEmailClaim> claim = claimRepository.findById(key);
+		boolean claimed;
+		if (claim.isEmpty()) {
+			// 확인하는 사이 claim 이 지워졌으면 한 번 더 넣어 본다.
+			claimed = claimRepository.insertIfAbsent(key, employeeId, now) == 1;
+		} else {
+			EmployeeEmailClaim holder = claim.get();
+			claimed = holder.getEmployeeId() == employeeId
+				|| isStale(holder, now) && claimRepository.takeOver(key, holder.getEmployeeId(), employeeId, now) == 1;
+		}
+		if (!claimed) {
+			throw new DuplicateEmailException("Employee already exist with given email:" + email);
+		}
+	}
+
+	/**
+	 * email 의 홈 샤드에서 새 트랜잭션으로 claim 하고 커밋한다.
+	 */
+	public void claimOnHomeShard(String email, long employeeId) {
+		if (!isEnabled()) {
+			return;
+		}
+		shardRouter.onShard(shardRouter.physicalShardOfEmail(email), false, () -> {
+			claim(email, employeeId);
+			return null;
+		});
+	}
+
+	/**
+	 * employeeId 가 가진 email 의 claim 을 지운다. 다른 직원이 넘겨받은 claim 은 남겨 둔다.
+	 * 지우지 못한 claim 은 직원 행의 email 과 맞지 않으므로 다음 claim 때 넘겨받게 되어, 실패해도 예외를 던지지 않는다.
+	 */
+	public void release(String email, long employeeId) {
+		if (!isEnabled()) {
+			return;
+		}
+		try {
+			shardRouter.onShard(shardRouter.physicalShardOfEmail(email), false,
+				() -> claimRepository.release(email.toLowerCase(Locale.ROOT), employeeId));
+		} catch (RuntimeException e) {
+			log.warn("Failed to release the email claim of employee {}, it is taken over on the next claim", employeeId, e);
+		}
+	}
+
+	// 직원 행이 없으면 바로, email 이 다르면 CLAIM_GRACE 가 지난 뒤에 넘겨받는다.
+	private boolean isStale(EmployeeEmailClaim claim, Instant now) {
+		Optional<String> current = shardRouter.onShard(shardRouter.physicalShardOfId(claim.getEmployeeId()), true,
+			() -> employeeRepository.findEmailIncludingDeleted(claim.getEmployeeId()));
+		return current.isEmpty()
+			|| !current.get().equalsIgnoreCase(claim.getEmail()) && claim.getClaimedAt().isBefore(now.minus(CLAIM_GRACE));
+	}
+}
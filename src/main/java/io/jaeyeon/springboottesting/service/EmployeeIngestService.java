@@ -0,0 +1,241 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeIngestStatus;
+import io.jaeyeon.springboottesting.exception.IngestQueueFullException;
+import io.jaeyeon.springboottesting.exception.InvalidEmployeeException;
+import io.jaeyeon.springboottesting.model.Employee;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 등록 요청을 검증한 뒤 WAL 에 기록하고 bounded 큐에 넣어 바로 응답한다(write-behind).
+ * 백그라운드 워커가 큐를 batchSize 단위로 꺼내 EmployeeService.saveEmployees 로 저장하고,
+ * 배치가 통째로 실패하면 한 건씩 다시 저장해 실패 원인이 되는 행만 골라낸다.
+ * 큐가 가득 차면 IngestQueueFullException(429)으로 생산자에게 backpressure 를 건다.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "employee.ingest.enabled", havingValue = "true")
+public class EmployeeIngestService {
+
+	private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+	private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+	private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(5);
+
+	private final EmployeeService employeeService;
+	private final EmployeeWriteAheadLog writeAheadLog;
+	private final BlockingQueue<EmployeeWriteAheadLog.Entry> queue;
+	private final int batchSize;
+	private final Cache<String, EmployeeIngestStatus> statuses;
+	private final Object submitLock = new Object();
+
+	private volatile boolean running;
+	// WAL 에 기록했지만 fsync 를 기다리느라 아직 큐에 넣지 않은 요청 수(submitLock 으로 보호)
+	private int inFlight;
+	private Thread worker;
+
+	public EmployeeIngestService(EmployeeService employeeService, ObjectMapper objectMapper,
+		@Value("${employee.ingest.queue-capacity:10000}") int queueCapacity,
+		@Value("${employee.ingest.batch-size:${employee.batch.size:500}}") int batchSize,
+		@Value("${employee.ingest.wal-path:data/employee-ingest.wal}") Path walPath,
+		@Value("${employee.ingest.status-retention:1h}") Duration statusRetention) {
+
+		this.employeeService = employeeService;
+		this.batchSize = batchSize;
+		this.writeAheadLog = new EmployeeWriteAheadLog(walPath,
+			objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT));
+		this.statuses = Caffeine.newBuilder()
+			.expireAfterWrite(statusRetention)
+			.build();
+
+		List<EmployeeWriteAheadLog.Entry> recovered;
+		try {
+			recovered = writeAheadLog.recover();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, recovered.size()));
+		recovered.forEach(entry -> {
+			statuses.put(entry.ticket(), EmployeeIngestStatus.queued(entry.ticket()));
+			queue.add(entry);
+		});
+		if (!recovered.isEmpty()) {
+			log.info("Recovered {} queued employees from {}", recovered.size(), walPath);
+		}
+	}
+
+	@PostConstruct
+	void start() {
+		running = true;
+		worker = Thread.ofPlatform().name("employee-ingest").start(this::drain);
+	}
+
+	/**
+	 * 큐에 넣은 요청의 ticket 을 반환한다. WAL 에 fsync 된 뒤에 반환하므로 이후 프로세스가 죽어도 요청은 유실되지 않는다.
+	 * fsync 는 submitLock 밖에서 하므로, 그동안 들어온 다른 요청들은 다음 fsync 한 번으로 함께 확정된다(group commit).
+	 */
+	public String submit(Employee employee) {
+		if (!EmployeeService.hasRequiredFields(employee)) {
+			throw new InvalidEmployeeException("firstName, lastName and email are required");
+		}
+		String ticket = UUID.randomUUID().toString();
+		long position;
+		synchronized (submitLock) {
+			if (!running || queue.remainingCapacity() - inFlight <= 0) {
+				throw new IngestQueueFullException("Employee ingest queue is full");
+			}
+			try {
+				position = writeAheadLog.append(ticket, employee);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			inFlight++;
+		}
+
+		try {
+			writeAheadLog.force(position);
+		} catch (IOException e) {
+			synchronized (submitLock) {
+				inFlight--;
+			}
+			throw new UncheckedIOException(e);
+		}
+
+		synchronized (submitLock) {
+			statuses.put(ticket, EmployeeIngestStatus.queued(ticket));
+			queue.add(new EmployeeWriteAheadLog.Entry(ticket, employee));
+			inFlight--;
+		}
+		return ticket;
+	}
+
+	public Optional<EmployeeIngestStatus> getStatus(String ticket) {
+		return Optional.ofNullable(statuses.getIfPresent(ticket));
+	}
+
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	// 종료 시에는 큐에 남은 요청까지 저장한 뒤 멈추며, 제한 시간 안에 끝나지 않은 요청은 WAL 에서 다음 기동 때 복구된다.
+	@PreDestroy
+	void stop() throws InterruptedException, IOException {
+		running = false;
+		worker.join(TimeUnit.SECONDS.toMillis(30));
+		writeAheadLog.close();
+	}
+
+	private void drain() {
+		List<EmployeeWriteAheadLog.Entry> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				EmployeeWriteAheadLog.Entry first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				process(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException | IOException e) {
+				log.error("Employee ingest worker failed", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void process(List<EmployeeWriteAheadLog.Entry> batch) throws IOException, InterruptedException {
+		boolean settled;
+		try {
+			complete(batch,
+				employeeService.saveEmployees(batch.stream().map(EmployeeWriteAheadLog.Entry::employee).iterator()));
+			settled = true;
+		} catch (RuntimeException e) {
+			log.warn("Failed to save {} queued employees as a batch, retrying one by one", batch.size(), e);
+			settled = retryEach(batch);
+		}
+
+		synchronized (submitLock) {
+			if (settled && queue.isEmpty() && inFlight == 0) {
+				writeAheadLog.truncate();
+			}
+		}
+	}
+
+	/**
+	 * 한 건씩 저장한다. DB 연결 실패 같은 일시적인 오류는 backoff 후 같은 항목을 다시 시도하고,
+	 * 그 밖의 오류는 WAL 에 실패로 기록해 재시작 후에도 다시 처리하지 않는다.
+	 * 종료 중이라 끝내지 못한 항목은 WAL 에 남아 다음 기동 때 복구되며, 이때 false 를 반환한다.
+	 */
+	private boolean retryEach(List<EmployeeWriteAheadLog.Entry> batch) throws IOException, InterruptedException {
+		for (EmployeeWriteAheadLog.Entry entry : batch) {
+			Duration backoff = RETRY_BACKOFF;
+			while (true) {
+				try {
+					complete(List.of(entry), employeeService.saveEmployees(List.of(entry.employee()).iterator()));
+					break;
+				} catch (RuntimeException e) {
+					if (!isTransient(e)) {
+						log.error("Giving up on queued employee {}", entry.ticket(), e);
+						statuses.put(entry.ticket(), EmployeeIngestStatus.failed(entry.ticket(), e.getMessage()));
+						writeAheadLog.fail(entry.ticket());
+						break;
+					}
+					if (!running) {
+						statuses.put(entry.ticket(),
+							EmployeeIngestStatus.failed(entry.ticket(), "Will be retried after restart: " + e.getMessage()));
+						return false;
+					}
+					log.warn("Retrying queued employee {} in {}", entry.ticket(), backoff, e);
+					Thread.sleep(backoff.toMillis());
+					Duration doubled = backoff.multipliedBy(2);
+					backoff = doubled.compareTo(MAX_RETRY_BACKOFF) < 0 ? doubled : MAX_RETRY_BACKOFF;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void complete(List<EmployeeWriteAheadLog.Entry> entries, List<EmployeeBatchResult> results) throws IOException {
+		for (EmployeeBatchResult result : results) {
+			String ticket = entries.get(result.index()).ticket();
+			statuses.put(ticket, EmployeeIngestStatus.of(ticket, result));
+		}
+		writeAheadLog.commit(entries.stream().map(EmployeeWriteAheadLog.Entry::ticket).toList());
+	}
+
+	private static boolean isTransient(RuntimeException e) {
+		return e instanceof TransientDataAccessException
+			|| e instanceof DataAccessResourceFailureException
+			|| e instanceof CannotCreateTransactionException;
+	}
+}
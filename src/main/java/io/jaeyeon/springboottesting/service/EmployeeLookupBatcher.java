@@ -0,0 +1,167 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.config.ReadWriteRoutingDataSource;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * id 단건 조회를 합쳐서 실행한다.
+ * <ul>
+ *     <li>같은 id 에 대해 이미 진행 중인 조회가 있으면 새 쿼리를 만들지 않고 그 결과를 함께 받는다(single-flight).</li>
+ *     <li>서로 다른 id 는 batchWindow 동안 모았다가 한 번의 WHERE id IN (...) 쿼리로 읽는다.
+ *     maxBatchSize 에 도달하면 기다리지 않고 바로 실행한다.</li>
+ * </ul>
+ * 쿼리는 호출한 스레드가 아닌 가상 스레드에서 실행되므로, 기다리는 동안 호출자가 커넥션을 잡고 있지 않아야 한다.
+ * 호출한 요청의 복제본 고정({@link ReadWriteRoutingDataSource#pin()})은 읽기 대상별로 묶어 쿼리에 넘긴다. 이미 대상을
+ * 고른 요청끼리는 그 대상에서, 아직 고르지 않은 요청끼리는 함께 읽고 그 쿼리가 고른 대상을 이어받는다.
+ * 샤드가 여럿이면 모인 id 를 {@link EmployeeShardRouter} 가 샤드별로 나누어 읽는다.
+ */
+@Component
+public class EmployeeLookupBatcher {
+
+	// 복제본 고정이 없거나 아직 읽기 대상을 고르지 않은 조회의 묶음 키
+	private static final Object UNPINNED = new Object();
+
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeShardRouter shardRouter;
+	private final Duration batchWindow;
+	private final int maxBatchSize;
+
+	private final ConcurrentHashMap<Long, CompletableFuture<Optional<EmployeeView>>> inFlight = new ConcurrentHashMap<>();
+	private final Object lock = new Object();
+	private List<Pending> pending = new ArrayList<>();
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "employee-lookup-batcher");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	public EmployeeLookupBatcher(EmployeeRepository employeeRepository, EmployeeShardRouter shardRouter,
+		@Value("${employee.lookup.batch-window:2ms}") Duration batchWindow,
+		@Value("${employee.lookup.max-batch-size:100}") int maxBatchSize) {
+		this.employeeRepository = employeeRepository;
+		this.shardRouter = shardRouter;
+		this.batchWindow = batchWindow;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * lookup 의 결과를 기다린다. 쿼리에서 발생한 예외는 감싸지 않고 그대로 던진다.
+	 */
+	public Optional<EmployeeView> find(Long id) {
+		try {
+			return lookup(id).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	public CompletableFuture<Optional<EmployeeView>> lookup(Long id) {
+		CompletableFuture<Optional<EmployeeView>> future = new CompletableFuture<>();
+		CompletableFuture<Optional<EmployeeView>> existing = inFlight.putIfAbsent(id, future);
+		if (existing != null) {
+			return existing;
+		}
+
+		boolean full;
+		boolean first;
+		synchronized (lock) {
+			pending.add(new Pending(id, ReadWriteRoutingDataSource.currentPin()));
+			full = pending.size() >= maxBatchSize;
+			first = pending.size() == 1;
+		}
+		if (full) {
+			flush();
+		} else if (first) {
+			scheduler.schedule(this::flush, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		return future;
+	}
+
+	@PreDestroy
+	void close() {
+		scheduler.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	private void flush() {
+		List<Pending> batch;
+		synchronized (lock) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = pending;
+			pending = new ArrayList<>();
+		}
+		batch.stream()
+			.collect(Collectors.groupingBy(Pending::target))
+			.forEach((target, group) -> executor.execute(() -> load(target, group)));
+	}
+
+	private void load(Object target, List<Pending> group) {
+		List<Long> ids = group.stream().map(Pending::id).toList();
+		ReadWriteRoutingDataSource.PinScope pin = ReadWriteRoutingDataSource.PinScope.pinnedTo(
+			target == UNPINNED ? null : target);
+		Map<Long, EmployeeView> employees;
+		try {
+			employees = ReadWriteRoutingDataSource.callWithin(pin,
+					() -> shardRouter.onShardsOf(ids, true, employeeRepository::findViewsByIdIn)).stream()
+				.collect(Collectors.toMap(EmployeeView::id, Function.identity()));
+		} catch (RuntimeException e) {
+			ids.forEach(id -> complete(id, null, e));
+			return;
+		}
+		group.stream()
+			.map(Pending::pin)
+			.filter(Objects::nonNull)
+			.forEach(callerPin -> callerPin.adopt(pin));
+		ids.forEach(id -> complete(id, Optional.ofNullable(employees.get(id)), null));
+	}
+
+	// 완료 전에 맵에서 빼므로, 이후에 들어온 조회는 변경 사항을 볼 수 있도록 새 쿼리를 만든다.
+	private void complete(Long id, Optional<EmployeeView> employee, RuntimeException failure) {
+		CompletableFuture<Optional<EmployeeView>> future = inFlight.remove(id);
+		if (future == null) {
+			return;
+		}
+		if (failure != null) {
+			future.completeExceptionally(failure);
+		} else {
+			future.complete(employee);
+		}
+	}
+
+	private record Pending(Long id, ReadWriteRoutingDataSource.PinScope pin) {
+
+		Object target() {
+			Object target = pin == null ? null : pin.target();
+			return target == null ? UNPINNED : target;
+		}
+	}
+}
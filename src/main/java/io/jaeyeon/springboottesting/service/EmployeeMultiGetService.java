@@ -0,0 +1,155 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.jaeyeon.springboottesting.config.ReadWriteRoutingDataSource;
+import io.jaeyeon.springboottesting.dto.EmployeeMultiGetResult;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+
+/**
+ * 여러 id 를 한 번에 조회한다. id 목록은 chunkSize 개씩 나눈 IN 쿼리로 읽고, 청크가 둘 이상이면 모든 요청이 함께 쓰는
+ * 스레드 풀(스레드 parallelism 개)에 넘긴다.
+ *
+ * <p>한 요청이 동시에 실행하는 청크는 parallelism 개를 넘지 않는다. 앞선 청크가 끝나야 다음 청크를 넘기므로 큰 요청이
+ * 풀의 대기열을 혼자 채우지 않는다. 대기열도 parallelism 개로 제한되며, 가득 차면 호출한 스레드가 청크를 직접 실행한다.
+ * 따라서 동시에 잡히는 커넥션은 풀 스레드 parallelism 개에 동시 요청 수를 더한 만큼까지이고, 한 요청이 잡는 커넥션은
+ * parallelism 개 이하다.
+ *
+ * <p>각 청크는 findViewsByIdIn 이 여는 자체 읽기 트랜잭션에서 실행되므로 이 서비스는 트랜잭션을 열지 않는다.
+ * 샤드가 여럿이면 청크 안의 id 를 {@link EmployeeShardRouter} 가 샤드별로 나누어 읽는다.
+ */
+@Service
+public class EmployeeMultiGetService {
+
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeShardRouter shardRouter;
+	@Getter
+	private final int maxIds;
+	private final int chunkSize;
+	private final int parallelism;
+	private final ThreadPoolExecutor executor;
+
+	public EmployeeMultiGetService(EmployeeRepository employeeRepository, EmployeeShardRouter shardRouter,
+		@Value("${employee.multi-get.max-ids:10000}") int maxIds,
+		@Value("${employee.multi-get.chunk-size:500}") int chunkSize,
+		@Value("${employee.multi-get.parallelism:4}") int parallelism) {
+		this.employeeRepository = employeeRepository;
+		this.shardRouter = shardRouter;
+		this.maxIds = maxIds;
+		this.chunkSize = chunkSize;
+		this.parallelism = parallelism;
+		AtomicInteger threadNumber = new AtomicInteger();
+		// 대기열이 가득 차면 호출한 스레드가 직접 실행한다. 종료된 뒤에는 버리지 않고 거절해 호출한 쪽이 영원히 기다리지 않게 한다.
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(parallelism), runnable -> {
+				Thread thread = new Thread(runnable, "employee-multi-get-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}, (runnable, pool) -> {
+				if (pool.isShutdown()) {
+					throw new RejectedExecutionException("Employee multi-get executor is shut down");
+				}
+				runnable.run();
+			});
+	}
+
+	public EmployeeMultiGetResult getEmployees(Collection<Long> ids) {
+		List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+		Map<Long, EmployeeView> found = new HashMap<>();
+		for (EmployeeView employee : fetch(distinctIds)) {
+			found.put(employee.id(), employee);
+		}
+
+		List<EmployeeView> employees = new ArrayList<>(found.size());
+		List<Long> missing = new ArrayList<>();
+		for (Long id : distinctIds) {
+			EmployeeView employee = found.get(id);
+			if (employee != null) {
+				employees.add(employee);
+			} else {
+				missing.add(id);
+			}
+		}
+		return new EmployeeMultiGetResult(employees, missing);
+	}
+
+	@PreDestroy
+	void close() {
+		executor.shutdownNow();
+	}
+
+	private List<EmployeeView> findViews(List<Long> ids) {
+		return shardRouter.onShardsOf(ids, true, employeeRepository::findViewsByIdIn);
+	}
+
+	// 청크가 하나뿐이면 스레드를 넘기지 않고 호출한 스레드에서 바로 읽는다.
+	private List<EmployeeView> fetch(List<Long> ids) {
+		if (ids.size() <= chunkSize) {
+			return findViews(ids);
+		}
+
+		// 풀 스레드의 청크도 이 요청과 같은 복제본에서 읽도록 복제본 고정을 넘겨준다.
+		ReadWriteRoutingDataSource.PinScope pin = ReadWriteRoutingDataSource.currentPin();
+		// 이 요청이 동시에 실행하는 청크 수를 parallelism 개로 제한한다.
+		Semaphore inFlight = new Semaphore(parallelism);
+		List<CompletableFuture<List<EmployeeView>>> chunks = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+			try {
+				inFlight.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				chunks.forEach(submitted -> submitted.cancel(false));
+				throw new IllegalStateException("Interrupted while fetching employees", e);
+			}
+			CompletableFuture<List<EmployeeView>> future;
+			try {
+				future = CompletableFuture.supplyAsync(
+					() -> ReadWriteRoutingDataSource.callWithin(pin, () -> findViews(chunk)), executor);
+			} catch (RejectedExecutionException e) {
+				chunks.forEach(submitted -> submitted.cancel(false));
+				throw e;
+			}
+			future.whenComplete((result, failure) -> inFlight.release());
+			chunks.add(future);
+			// 이미 실패한 청크가 있으면 남은 청크는 넘기지 않는다.
+			if (chunks.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+				break;
+			}
+		}
+
+		List<EmployeeView> employees = new ArrayList<>(ids.size());
+		try {
+			for (CompletableFuture<List<EmployeeView>> chunk : chunks) {
+				employees.addAll(chunk.join());
+			}
+		} catch (CompletionException e) {
+			chunks.forEach(chunk -> chunk.cancel(false));
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		return employees;
+	}
+}
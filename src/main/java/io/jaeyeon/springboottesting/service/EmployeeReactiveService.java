@@ -0,0 +1,116 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.jaeyeon.springboottesting.config.CacheConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeReactiveRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * EmployeeService 의 reactive 버전. 조회와 쓰기 모두 R2DBC 로 끝까지 non-blocking 으로 처리한다.
+ *
+ * <p>쓰기는 EmployeeService 와 같은 규칙(애플리케이션 채번, uk_employees_email 로 중복 검사, 같은 트랜잭션에서 변경 로그 기록)을
+ * R2DBC 트랜잭션 안에서 따르고, 커밋된 뒤 캐시를 무효화하고 EmployeeChangeSequencer 에 sequence 를 맡긴다.
+ */
+@Service
+@Profile("reactive")
+public class EmployeeReactiveService {
+
+	private final EmployeeReactiveRepository employeeReactiveRepository;
+	private final TransactionalOperator transactionalOperator;
+	private final CacheConfig cacheConfig;
+	private final EmployeeChangeSequencer changeSequencer;
+	private final boolean softDelete;
+
+	public EmployeeReactiveService(EmployeeReactiveRepository employeeReactiveRepository,
+		TransactionalOperator transactionalOperator, CacheConfig cacheConfig, EmployeeChangeSequencer changeSequencer,
+		@Value("${employee.delete.soft:false}") boolean softDelete) {
+		this.employeeReactiveRepository = employeeReactiveRepository;
+		this.transactionalOperator = transactionalOperator;
+		this.cacheConfig = cacheConfig;
+		this.changeSequencer = changeSequencer;
+		this.softDelete = softDelete;
+	}
+
+	public Mono<Employee> saveEmployee(Employee employee) {
+		return employeeReactiveRepository.insert(employee)
+			.flatMap(saved -> employeeReactiveRepository
+				.insertChange(saved.getId(), EmployeeChange.Type.CREATED, Instant.now())
+				.thenReturn(saved))
+			.as(transactionalOperator::transactional)
+			.onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmail(e, employee))
+			.doOnSuccess(saved -> afterCommit(saved.getId()));
+	}
+
+	public Flux<EmployeeView> getEmployees(Long after, int limit) {
+		return employeeReactiveRepository.findByIdGreaterThan(after == null ? 0L : after, limit);
+	}
+
+	public Flux<EmployeeView> streamEmployees() {
+		return employeeReactiveRepository.findAll();
+	}
+
+	public Mono<EmployeeView> getEmployeeById(Long id) {
+		return employeeReactiveRepository.findById(id);
+	}
+
+	/**
+	 * EmployeeService#updateEmployee 와 같이 변경된 행 수로 결과를 판단하고, 행이 없을 때에만 존재 여부를 확인해
+	 * 버전 불일치와 404 를 구분한다.
+	 */
+	public Mono<Void> updateEmployee(Long id, Employee employee, Long expectedVersion) {
+		return employeeReactiveRepository.update(id, employee, expectedVersion)
+			.flatMap(updated -> updated > 0
+				? employeeReactiveRepository.insertChange(id, EmployeeChange.Type.UPDATED, Instant.now())
+				: notUpdated(id, expectedVersion))
+			.as(transactionalOperator::transactional)
+			.onErrorMap(DataIntegrityViolationException.class, e -> duplicateEmail(e, employee))
+			.doOnSuccess(done -> afterCommit(id));
+	}
+
+	public Mono<Void> deleteEmployee(Long id) {
+		Instant now = Instant.now();
+		return employeeReactiveRepository.delete(id, softDelete, now)
+			.flatMap(deleted -> deleted > 0
+				? employeeReactiveRepository.insertChange(id, EmployeeChange.Type.DELETED, now)
+				: Mono.<Void>empty())
+			.as(transactionalOperator::transactional)
+			.doOnSuccess(done -> afterCommit(id));
+	}
+
+	private Mono<Void> notUpdated(Long id, Long expectedVersion) {
+		if (expectedVersion == null) {
+			return Mono.error(new ResourceNotFoundException("Employee not exist with given id:" + id));
+		}
+		return employeeReactiveRepository.existsById(id)
+			.flatMap(exists -> Mono.error(exists
+				? new OptimisticLockingFailureException("Employee was modified by another request:" + id)
+				: new ResourceNotFoundException("Employee not exist with given id:" + id)));
+	}
+
+	private static Throwable duplicateEmail(DataIntegrityViolationException e, Employee employee) {
+		return DuplicateEmailException.isDuplicateEmail(e)
+			? new DuplicateEmailException("Employee already exist with given email:" + employee.getEmail(), e)
+			: e;
+	}
+
+	// @CacheEvict 는 Mono 가 끝나기 전에 실행되므로 커밋된 뒤 직접 무효화한다.
+	private void afterCommit(Long id) {
+		cacheConfig.getCache(CacheConfig.EMPLOYEES).evict(id);
+		cacheConfig.getCache(CacheConfig.EMPLOYEES_BY_EMAIL).clear();
+		changeSequencer.sequenceAsync();
+	}
+}
@@ -1,14 +1,50 @@
 package io.jaeyeon.springboottesting.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import io.jaeyeon.springboottesting.config.CacheConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
 import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
 import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
 import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -16,31 +52,406 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class EmployeeService {
 
+	// IN 목록이 지나치게 길어지지 않도록 조건 삭제는 이 크기로 나누어 실행한다.
+	private static final int MAX_IDS_PER_STATEMENT = 1000;
+	// 샤드가 여럿일 때 전체 목록을 이 크기의 keyset 페이지로 나누어 읽는다.
+	private static final int STREAM_PAGE_SIZE = 1000;
+	private static final Comparator<EmployeeView> BY_ID = Comparator.comparing(EmployeeView::id);
+
 	private final EmployeeRepository employeeRepository;
+	private final EmployeeTableVersionRepository tableVersionRepository;
+	private final EmployeeChangeRepository changeRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EmployeeLookupBatcher lookupBatcher;
+	private final EmployeeShardRouter shardRouter;
+	private final EmployeeEmailIndex emailIndex;
+	private final PlatformTransactionManager transactionManager;
+	private final EntityManager entityManager;
+
+	@Value("${employee.batch.size:500}")
+	private int batchSize;
+
+	// true 면 삭제 시 행을 지우지 않고 deleted_at 만 채운다.
+	@Value("${employee.delete.soft:false}")
+	private boolean softDelete;
 
 	public Employee saveEmployee(Employee employee) {
-		if (employeeRepository.findByEmail(employee.getEmail()).isPresent()) {
-			throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+		// 이메일 중복은 사전 조회 대신 uk_employees_email 유니크 제약으로 검사한다.
+		// 새 직원은 email 의 샤드에 저장되며, EmployeeIdGenerator 가 같은 논리 샤드를 id 에 넣는다.
+		// 샤드가 여럿이면 다른 샤드의 직원과도 겹치지 않도록 같은 트랜잭션에서 email 을 claim 한다.
+		try {
+			return shardRouter.onShard(shardRouter.physicalShardOfEmail(employee.getEmail()), false, () -> {
+				Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+				emailIndex.claim(savedEmployee.getEmail(), savedEmployee.getId());
+				touchTable(EmployeeChange.Type.CREATED, List.of(savedEmployee.getId()));
+				return savedEmployee;
+			});
+		} catch (DataIntegrityViolationException e) {
+			if (DuplicateEmailException.isDuplicateEmail(e)) {
+				throw new DuplicateEmailException("Employee already exist with given email:" + employee.getEmail(), e);
+			}
+			throw e;
 		}
+	}
 
-		return employeeRepository.save(employee);
+	/**
+	 * 요청을 batchSize 단위로 나누어 중복 이메일을 한 번의 쿼리로 확인한 뒤 JDBC batch 로 저장한다.
+	 * 중복되거나 필수 값이 없는 행은 건너뛰고 결과에 사유를 남기므로 일부 행 때문에 전체 요청이 실패하지 않는다.
+	 *
+	 * <p>chunk 마다(샤드가 여럿이면 chunk 안의 샤드마다) 따로 커밋하므로 요청 전체를 하나의 트랜잭션으로 묶지 않으며,
+	 * NDJSON 본문을 받는 동안 커넥션을 잡지 않는다.
+	 * 사전 확인을 통과했지만 flush 나 email claim 에서 제약에 걸린 chunk(동시 등록 등)는 롤백한 뒤 한 행씩 다시 저장해 행 단위 결과를 만든다.
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<EmployeeBatchResult> saveEmployees(Iterator<Employee> employees) {
+		List<EmployeeBatchResult> results = new ArrayList<>();
+		Set<String> seenEmails = new HashSet<>();
+		List<Employee> chunk = new ArrayList<>(batchSize);
+
+		while (employees.hasNext()) {
+			chunk.add(employees.next());
+			if (chunk.size() == batchSize) {
+				saveChunk(chunk, results, seenEmails);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			saveChunk(chunk, results, seenEmails);
+		}
+		return results;
 	}
 
+	/**
+	 * employees 테이블의 변경 카운터. 목록 응답의 ETag 이자 변경 피드의 sequence 이며, 한 번도 변경된 적이 없으면 0 이다.
+	 */
 	@Transactional(readOnly = true)
-	public List<Employee> getAllEmployees() {
-		return employeeRepository.findAll();
+	public long getTableVersion() {
+		return tableVersionRepository.findCurrentVersion().orElse(0L);
 	}
 
 	@Transactional(readOnly = true)
-	public Optional<Employee> getEmployeeById(Long id) {
-		return employeeRepository.findById(id);
+	public List<EmployeeView> getEmployees(Long after, int limit) {
+		long cursor = after == null ? 0L : after;
+		return shardRouter.onEveryShard(() -> employeeRepository.findViewsAfter(cursor, PageRequest.ofSize(limit)), BY_ID,
+			limit);
+	}
+
+	/**
+	 * 전체 직원을 id 순서대로 한 건씩 consumer 에 전달한다.
+	 * 엔티티 대신 projection 을 읽으므로 영속성 컨텍스트에 쌓이는 것이 없어 테이블 크기와 관계없이 메모리 사용량이 일정하다.
+	 *
+	 * <p>샤드가 여럿이면 한 트랜잭션으로 모든 샤드를 읽을 수 없으므로 STREAM_PAGE_SIZE 건씩 keyset 페이지로 모아 읽는다.
+	 * 이때는 페이지마다 다른 시점의 데이터를 보게 된다.
+	 */
+	@Transactional(readOnly = true)
+	public void streamEmployees(Consumer<EmployeeView> consumer) {
+		if (!shardRouter.isSharded()) {
+			try (Stream<EmployeeView> employees = employeeRepository.streamAllViews()) {
+				employees.forEach(consumer);
+			}
+			return;
+		}
+		List<EmployeeView> page;
+		long after = 0L;
+		do {
+			page = getEmployees(after, STREAM_PAGE_SIZE);
+			page.forEach(consumer);
+			if (!page.isEmpty()) {
+				after = page.get(page.size() - 1).id();
+			}
+		} while (page.size() == STREAM_PAGE_SIZE);
+	}
+
+	/**
+	 * 이름 접두어와 이메일 도메인 조건으로 검색한다. 비어 있는 조건은 무시하며, 결과는 id 기준 keyset 으로 페이징한다.
+	 */
+	@Transactional(readOnly = true)
+	public List<EmployeeView> searchEmployees(EmployeeSearchCondition condition, Long after, int limit) {
+		long cursor = after == null ? 0L : after;
+		return shardRouter.onEveryShard(() -> employeeRepository.search(condition, cursor, limit), BY_ID, limit);
+	}
+
+	/**
+	 * 캐시에 없으면 EmployeeLookupBatcher 로 조회한다. 같은 id 에 대한 동시 요청은 하나의 쿼리를 공유하고,
+	 * 짧은 시간 안에 들어온 서로 다른 id 는 하나의 IN 쿼리로 합쳐진다. 조회는 batcher 의 스레드에서 실행되므로
+	 * 기다리는 동안 커넥션을 잡지 않도록 트랜잭션을 열지 않는다.
+	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	@Cacheable(cacheNames = CacheConfig.EMPLOYEES, key = "#id", sync = true)
+	public Optional<EmployeeView> getEmployeeById(Long id) {
+		return lookupBatcher.find(id);
 	}
 
-	public Employee updateEmployee(Employee updatedEmployee) {
-		return employeeRepository.save(updatedEmployee);
+	/**
+	 * null 이 아닌 필드만 단일 UPDATE 문으로 변경한다. 사전 SELECT 없이 변경된 행 수로 결과를 판단하며,
+	 * 행이 없을 때에만 존재 여부를 한 번 더 확인해 버전 불일치와 404 를 구분한다.
+	 *
+	 * @param expectedVersion null 이 아니면 해당 버전일 때만 변경한다(낙관적 락).
+	 */
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, allEntries = true)})
+	public void updateEmployee(Long id, Employee employee, Long expectedVersion) {
+		// 직원은 id 의 샤드에 남으므로, 샤드가 여럿이면 바뀌는 email 을 그 홈 샤드에서 먼저 claim 한다.
+		String previousEmail = emailIndex.isEnabled() && employee.getEmail() != null
+			? shardRouter.onShard(shardRouter.physicalShardOfId(id), true, () -> employeeRepository.findEmailIncludingDeleted(id))
+				.filter(email -> !email.equalsIgnoreCase(employee.getEmail()))
+				.orElse(null)
+			: null;
+		if (previousEmail != null) {
+			emailIndex.claimOnHomeShard(employee.getEmail(), id);
+		}
+		try {
+			shardRouter.onShard(shardRouter.physicalShardOfId(id), false, () -> {
+				update(id, employee, expectedVersion);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			if (previousEmail != null) {
+				emailIndex.release(employee.getEmail(), id);
+			}
+			throw e;
+		}
+		if (previousEmail != null) {
+			emailIndex.release(previousEmail, id);
+		}
 	}
 
+	private void update(Long id, Employee employee, Long expectedVersion) {
+		int updated;
+		try {
+			updated = expectedVersion == null
+				? employeeRepository.updateById(id, employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+					Employee.emailDomainOf(employee.getEmail()))
+				: employeeRepository.updateByIdAndVersion(id, expectedVersion, employee.getFirstName(),
+					employee.getLastName(), employee.getEmail(), Employee.emailDomainOf(employee.getEmail()));
+		} catch (DataIntegrityViolationException e) {
+			if (DuplicateEmailException.isDuplicateEmail(e)) {
+				throw new DuplicateEmailException("Employee already exist with given email:" + employee.getEmail(), e);
+			}
+			throw e;
+		}
+
+		if (updated == 0) {
+			if (expectedVersion != null && employeeRepository.existsById(id)) {
+				throw new OptimisticLockingFailureException("Employee was modified by another request:" + id);
+			}
+			throw new ResourceNotFoundException("Employee not exist with given id:" + id);
+		}
+		touchTable(EmployeeChange.Type.UPDATED, List.of(id));
+	}
+
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, allEntries = true)})
 	public void deleteEmployee(Long id) {
-		employeeRepository.deleteById(id);
+		delete(List.of(id));
+	}
+
+	/**
+	 * id 목록을 한 번의 DELETE(soft delete 모드에서는 UPDATE) 문으로 삭제하고 삭제된 행 수를 반환한다.
+	 */
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES, allEntries = true),
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, allEntries = true)})
+	public int deleteEmployees(Collection<Long> ids) {
+		return delete(ids);
+	}
+
+	/**
+	 * 검색 조건에 맞는 직원을 id 순으로 MAX_IDS_PER_STATEMENT 건씩 잠가 읽고(keyset pagination) 그 id 들만 삭제한다.
+	 * 페이지마다 별도 트랜잭션에서 삭제와 변경 로그 기록을 함께 커밋하므로, 대상이 많아도 id 목록 전체를 메모리에 올리거나
+	 * 한 트랜잭션에서 모든 행을 잠그지 않는다. 샤드가 여럿이면 샤드마다 차례로 같은 방식으로 지운다.
+	 * 샤드가 하나일 때 호출하는 쪽에 트랜잭션이 있으면 페이지들이 그 트랜잭션에 참여한다.
+	 * 조건이 하나도 없으면 전체 삭제가 되므로 호출하는 쪽에서 막아야 한다.
+	 */
+	@Transactional(propagation = Propagation.SUPPORTS)
+	@Caching(evict = {
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES, allEntries = true),
+		@CacheEvict(cacheNames = CacheConfig.EMPLOYEES_BY_EMAIL, allEntries = true)})
+	public int deleteEmployees(EmployeeSearchCondition condition) {
+		Instant now = Instant.now();
+		int deleted = 0;
+		for (int shard = 0; shard < shardRouter.getPhysicalShardCount(); shard++) {
+			deleted += shardRouter.routeTo(shard, () -> deleteMatching(condition, now));
+		}
+		return deleted;
+	}
+
+	private int deleteMatching(EmployeeSearchCondition condition, Instant now) {
+		TransactionTemplate transaction = newTransaction();
+		int deleted = 0;
+		long after = 0L;
+		List<Long> page;
+		do {
+			long cursor = after;
+			page = transaction.execute(status -> {
+				List<Long> ids = employeeRepository.findIdsMatching(condition, cursor, MAX_IDS_PER_STATEMENT);
+				if (!ids.isEmpty()) {
+					deleteByIds(ids, now);
+					touchTable(EmployeeChange.Type.DELETED, ids);
+				}
+				return ids;
+			});
+			deleted += page.size();
+			if (!page.isEmpty()) {
+				after = page.get(page.size() - 1);
+			}
+		} while (page.size() == MAX_IDS_PER_STATEMENT);
+		return deleted;
+	}
+
+	// soft delete 로 남은 행도 email 유니크 제약에 걸리므로, 같은 이메일로 다시 등록하려면 purge 된 뒤여야 한다.
+	// 샤드가 여럿이면 샤드마다 따로 지우고 커밋한다.
+	private int delete(Collection<Long> ids) {
+		return shardRouter.onShardsOf(ids, false, this::deleteOnShard).size();
+	}
+
+	private List<Long> deleteOnShard(List<Long> idList) {
+		Instant now = Instant.now();
+		List<Long> deletedIds = new ArrayList<>();
+		for (int from = 0; from < idList.size(); from += MAX_IDS_PER_STATEMENT) {
+			List<Long> chunk = idList.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, idList.size()));
+			// 한 건이면 삭제된 행 수로 알 수 있고, 여러 건이면 실제로 있는 행만 잠가 두고 지워 없던 id 가 변경 로그에 남지 않게 한다.
+			List<Long> existing = chunk.size() == 1 ? chunk : employeeRepository.lockExistingIds(chunk);
+			if (!existing.isEmpty() && deleteByIds(existing, now) > 0) {
+				deletedIds.addAll(existing);
+			}
+		}
+		if (!deletedIds.isEmpty()) {
+			touchTable(EmployeeChange.Type.DELETED, deletedIds);
+		}
+		return deletedIds;
+	}
+
+	private int deleteByIds(Collection<Long> ids, Instant now) {
+		return softDelete
+			? employeeRepository.softDeleteByIdIn(ids, now)
+			: employeeRepository.deleteByIdIn(ids);
+	}
+
+	/**
+	 * 같은 트랜잭션(같은 샤드)에서 sequence 없이 변경 로그를 남긴다. 테이블 변경 카운터와 sequence 는 커밋된 뒤
+	 * EmployeeChangeSequencer 가 올리므로, 쓰기끼리 하나의 카운터 행 락을 커밋까지 기다리지 않는다.
+	 */
+	private void touchTable(EmployeeChange.Type type, Collection<Long> ids) {
+		Instant now = Instant.now();
+		changeRepository.saveAll(ids.stream()
+			.map(id -> EmployeeChange.recorded(id, type, now))
+			.toList());
+		eventPublisher.publishEvent(new EmployeeChangesRecordedEvent());
+	}
+
+	private void saveChunk(List<Employee> chunk, List<EmployeeBatchResult> results, Set<String> seenEmails) {
+		int offset = results.size();
+		EmployeeBatchResult[] chunkResults = new EmployeeBatchResult[chunk.size()];
+
+		// 같은 이메일은 항상 같은 샤드로 가므로, 샤드마다 원래 순서대로 처리해도 먼저 나온 행이 저장된다.
+		Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			Employee employee = chunk.get(i);
+			positionsByShard.computeIfAbsent(shardRouter.physicalShardOfEmail(employee == null ? null : employee.getEmail()),
+				shard -> new ArrayList<>()).add(i);
+		}
+		positionsByShard.forEach((shard, positions) -> shardRouter.routeTo(shard, () -> {
+			saveChunkOnShard(chunk, positions, offset, chunkResults, seenEmails);
+			return null;
+		}));
+
+		// 다음 chunk 를 위해 영속성 컨텍스트를 비운다.
+		entityManager.clear();
+		results.addAll(Arrays.asList(chunkResults));
+	}
+
+	private void saveChunkOnShard(List<Employee> chunk, List<Integer> positions, int offset,
+		EmployeeBatchResult[] chunkResults, Set<String> seenEmails) {
+		TransactionTemplate transaction = newTransaction();
+		List<Integer> acceptedPositions = new ArrayList<>();
+
+		try {
+			transaction.executeWithoutResult(status -> {
+				// MySQL 의 기본 collation 은 대소문자를 구분하지 않으므로 소문자로 비교한다.
+				Set<String> existingEmails = new HashSet<>();
+				employeeRepository.findEmailsIn(positions.stream()
+						.map(chunk::get)
+						.filter(Objects::nonNull)
+						.map(Employee::getEmail)
+						.filter(Objects::nonNull)
+						.toList())
+					.forEach(email -> existingEmails.add(email.toLowerCase(Locale.ROOT)));
+
+				List<Employee> accepted = new ArrayList<>();
+				for (int i : positions) {
+					Employee employee = chunk.get(i);
+					if (!hasRequiredFields(employee)) {
+						chunkResults[i] = EmployeeBatchResult.invalid(offset + i, "firstName, lastName and email are required");
+						continue;
+					}
+					String email = employee.getEmail().toLowerCase(Locale.ROOT);
+					if (existingEmails.contains(email) || !seenEmails.add(email)) {
+						chunkResults[i] = EmployeeBatchResult.duplicate(offset + i, employee.getEmail());
+					} else {
+						accepted.add(employee);
+						acceptedPositions.add(i);
+					}
+				}
+
+				List<Employee> saved = employeeRepository.saveAll(accepted);
+				employeeRepository.flush();
+				saved.forEach(employee -> emailIndex.claim(employee.getEmail(), employee.getId()));
+				for (int i = 0; i < saved.size(); i++) {
+					int position = acceptedPositions.get(i);
+					chunkResults[position] = EmployeeBatchResult.created(offset + position, saved.get(i).getId());
+				}
+				if (!saved.isEmpty()) {
+					touchTable(EmployeeChange.Type.CREATED, saved.stream().map(Employee::getId).toList());
+				}
+			});
+		} catch (DataIntegrityViolationException | DuplicateEmailException e) {
+			for (int position : acceptedPositions) {
+				chunkResults[position] = saveRow(transaction, chunk.get(position), offset + position);
+			}
+		}
+	}
+
+	// 샤드가 여럿이면 호출한 쪽 트랜잭션과 다른 샤드를 쓸 수 있으므로 항상 새 트랜잭션을 연다.
+	private TransactionTemplate newTransaction() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		if (shardRouter.isSharded()) {
+			transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		}
+		return transaction;
+	}
+
+	private EmployeeBatchResult saveRow(TransactionTemplate transaction, Employee employee, int index) {
+		// 롤백된 chunk 에서 채번된 id 가 남아 있으므로 새 인스턴스로 저장한다.
+		Employee row = Employee.builder()
+			.firstName(employee.getFirstName())
+			.lastName(employee.getLastName())
+			.email(employee.getEmail())
+			.build();
+		try {
+			Long id = transaction.execute(status -> {
+				Employee saved = employeeRepository.saveAndFlush(row);
+				emailIndex.claim(saved.getEmail(), saved.getId());
+				touchTable(EmployeeChange.Type.CREATED, List.of(saved.getId()));
+				return saved.getId();
+			});
+			return EmployeeBatchResult.created(index, id);
+		} catch (DuplicateEmailException e) {
+			return EmployeeBatchResult.duplicate(index, employee.getEmail());
+		} catch (DataIntegrityViolationException e) {
+			if (DuplicateEmailException.isDuplicateEmail(e)) {
+				return EmployeeBatchResult.duplicate(index, employee.getEmail());
+			}
+			return EmployeeBatchResult.invalid(index, e.getMostSpecificCause().getMessage());
+		}
+	}
+
+	static boolean hasRequiredFields(Employee employee) {
+		return employee != null
+			&& employee.getFirstName() != null
+			&& employee.getLastName() != null
+			&& employee.getEmail() != null;
 	}
 }
@@ -0,0 +1,68 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 전체 직원 목록을 gzip 으로 압축한 NDJSON 스냅샷을 메모리에 보관한다.
+ * 스냅샷은 만들 당시의 테이블 변경 카운터와 함께 저장되며, EmployeeService 를 통한 쓰기로 카운터가 바뀌면
+ * 다음 요청에서 다시 만든다. 카운터가 같은 동안에는 조회와 직렬화, 압축 없이 같은 바이트를 내려준다.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "employee.snapshot.enabled", havingValue = "true")
+public class EmployeeSnapshotService {
+
+	private final EmployeeService employeeService;
+	private final ObjectMapper objectMapper;
+
+	private volatile Snapshot snapshot;
+
+	public record Snapshot(long tableVersion, byte[] gzippedNdjson) {
+	}
+
+	// 카운터 조회와 목록 조회를 한 읽기 트랜잭션에서 수행해 스냅샷 내용과 카운터가 어긋나지 않게 한다.
+	@Transactional(readOnly = true)
+	public Snapshot getSnapshot() {
+		long tableVersion = employeeService.getTableVersion();
+		Snapshot current = snapshot;
+		if (current != null && current.tableVersion() == tableVersion) {
+			return current;
+		}
+		synchronized (this) {
+			current = snapshot;
+			if (current == null || current.tableVersion() != tableVersion) {
+				current = new Snapshot(tableVersion, build());
+				snapshot = current;
+			}
+			return current;
+		}
+	}
+
+	private byte[] build() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			employeeService.streamEmployees(employee -> {
+				try {
+					gzip.write(objectMapper.writeValueAsBytes(employee));
+					gzip.write('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,24 @@
+package io.jaeyeon.springboottesting.service;
+
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 테이블 변경 카운터 행을 요청을 받기 전에 만들어 둔다.
+ * 처음 sequence 를 매길 때 행을 만들면 여러 인스턴스가 같은 행을 insert 하려다 충돌하므로,
+ * EmployeeChangeSequencer 는 이미 있는 행을 잠그고 증가시키기만 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeTableVersionInitializer {
+
+	private final EmployeeTableVersionRepository tableVersionRepository;
+
+	@PostConstruct
+	void createRow() {
+		tableVersionRepository.insertIfAbsent();
+	}
+}
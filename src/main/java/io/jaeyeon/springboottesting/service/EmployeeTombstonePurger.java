@@ -0,0 +1,61 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * soft delete 된 지 retention 이 지난 행을 batchSize 건씩 나누어 물리 삭제한다.
+ * 각 DELETE 가 별도 트랜잭션이므로 한 번에 많은 행을 잠그지 않는다. 샤드가 여럿이면 샤드마다 차례로 지운다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.delete.soft", havingValue = "true")
+public class EmployeeTombstonePurger {
+
+	private final EmployeeRepository employeeRepository;
+	private final EmployeeShardRouter shardRouter;
+	private final Duration retention;
+	private final int batchSize;
+
+	public EmployeeTombstonePurger(EmployeeRepository employeeRepository, EmployeeShardRouter shardRouter,
+		@Value("${employee.delete.purge-retention:7d}") Duration retention,
+		@Value("${employee.delete.purge-batch-size:1000}") int batchSize) {
+		this.employeeRepository = employeeRepository;
+		this.shardRouter = shardRouter;
+		this.retention = retention;
+		this.batchSize = batchSize;
+	}
+
+	@Scheduled(fixedDelayString = "${employee.delete.purge-interval:PT1H}")
+	public int purge() {
+		Instant cutoff = Instant.now().minus(retention);
+		int total = 0;
+		for (int shard = 0; shard < shardRouter.getPhysicalShardCount(); shard++) {
+			total += shardRouter.routeTo(shard, () -> purge(cutoff));
+		}
+
+		if (total > 0) {
+			log.info("Purged {} soft-deleted employees deleted before {}", total, cutoff);
+		}
+		return total;
+	}
+
+	private int purge(Instant cutoff) {
+		int total = 0;
+		int purged;
+		do {
+			purged = employeeRepository.purgeDeletedBefore(cutoff, batchSize);
+			total += purged;
+		} while (purged == batchSize);
+		return total;
+	}
+}
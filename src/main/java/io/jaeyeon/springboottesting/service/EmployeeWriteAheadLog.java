@@ -0,0 +1,161 @@
+package io.jaeyeon.springboottesting.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.model.Employee;
+
+/**
+ * 비동기 등록 큐의 내용을 보존하는 로컬 append-only 로그.
+ * 큐에 넣기 전에 "A ticket json" 을, DB 커밋 후에 "C ticket" 을, 다시 시도해도 저장할 수 없는 항목에는 "F ticket" 을 기록하므로,
+ * 재시작 시 A 만 있고 C / F 가 없는 항목이 아직 저장되지 않은 요청이다.
+ * fsync 는 force(position) 로 모아서 하며(group commit), 동시에 기록된 여러 줄이 한 번의 fsync 로 함께 확정된다.
+ */
+class EmployeeWriteAheadLog implements Closeable {
+
+	private static final String APPENDED = "A";
+	private static final String COMMITTED = "C";
+	private static final String FAILED = "F";
+
+	record Entry(String ticket, Employee employee) {
+	}
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+	private final Object forceLock = new Object();
+	private FileChannel channel;
+	// 지금까지 기록한 바이트 수(truncate 해도 줄지 않는 논리적 위치)와 그중 fsync 된 위치
+	private long written;
+	private long forced;
+
+	EmployeeWriteAheadLog(Path path, ObjectMapper objectMapper) {
+		this.path = path;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * 커밋되지 않은 항목을 순서대로 돌려주고, 로그를 그 항목들만 남긴 파일로 교체한 뒤 append 용으로 연다.
+	 * 쓰다가 끊긴 마지막 줄은 건너뛴다.
+	 */
+	synchronized List<Entry> recover() throws IOException {
+		Map<String, Employee> pending = new LinkedHashMap<>();
+		if (Files.exists(path)) {
+			try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] parts = line.split("\t", 3);
+					if (parts.length == 3 && parts[0].equals(APPENDED)) {
+						try {
+							pending.put(parts[1], objectMapper.readValue(parts[2], Employee.class));
+						} catch (JsonProcessingException e) {
+							// 기록 도중 중단된 줄
+						}
+					} else if (parts.length == 2 && (parts[0].equals(COMMITTED) || parts[0].equals(FAILED))) {
+						pending.remove(parts[1]);
+					}
+				}
+			}
+		}
+
+		List<Entry> entries = new ArrayList<>();
+		pending.forEach((ticket, employee) -> entries.add(new Entry(ticket, employee)));
+
+		Path parent = path.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path compacted = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+		try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+			for (Entry entry : entries) {
+				write(out, appendLine(entry.ticket(), entry.employee()));
+			}
+			out.force(true);
+		}
+		Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		return entries;
+	}
+
+	// fsync 하지 않고 기록만 한 뒤 위치를 반환한다. 요청을 확정하려면 force(position) 를 호출해야 한다.
+	synchronized long append(String ticket, Employee employee) throws IOException {
+		return write(appendLine(ticket, employee));
+	}
+
+	void commit(Collection<String> tickets) throws IOException {
+		force(writeMarkers(COMMITTED, tickets));
+	}
+
+	// 저장할 수 없는 항목으로 기록해 재시작 후 다시 처리하지 않게 한다.
+	void fail(String ticket) throws IOException {
+		force(writeMarkers(FAILED, List.of(ticket)));
+	}
+
+	/**
+	 * position 까지 기록된 내용을 디스크에 내린다. 먼저 들어온 호출의 fsync 가 이미 position 을 넘겼다면 바로 반환하므로,
+	 * fsync 를 기다리는 동안 기록된 요청들은 다음 fsync 한 번으로 함께 확정된다.
+	 */
+	void force(long position) throws IOException {
+		synchronized (forceLock) {
+			if (forced >= position) {
+				return;
+			}
+			long target;
+			synchronized (this) {
+				target = written;
+			}
+			channel.force(false);
+			forced = target;
+		}
+	}
+
+	// 큐가 비어 있고 처리 중인 항목이 없을 때 호출해 로그 파일이 계속 커지지 않게 한다.
+	synchronized void truncate() throws IOException {
+		channel.truncate(0);
+		channel.force(false);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	private synchronized long writeMarkers(String marker, Collection<String> tickets) throws IOException {
+		StringBuilder lines = new StringBuilder();
+		tickets.forEach(ticket -> lines.append(marker).append('\t').append(ticket).append('\n'));
+		return write(lines.toString());
+	}
+
+	private long write(String lines) throws IOException {
+		written += write(channel, lines);
+		return written;
+	}
+
+	private String appendLine(String ticket, Employee employee) throws JsonProcessingException {
+		return APPENDED + '\t' + ticket + '\t' + objectMapper.writeValueAsString(employee) + '\n';
+	}
+
+	private static int write(FileChannel channel, String line) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		return buffer.limit();
+	}
+}
@@ -0,0 +1,105 @@
+package io.jaeyeon.springboottesting.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class EvictionGuardedCacheTest {
+
+	private ConcurrentMapCache delegate;
+	private EvictionGuardedCache cache;
+
+	@BeforeEach
+	void setup() {
+		delegate = new ConcurrentMapCache("employees");
+		cache = new EvictionGuardedCache(delegate);
+	}
+
+	@Test
+	@DisplayName("JUnit test for caching the loaded value when nothing was evicted")
+	void givenNoEviction_whenGetWithLoader_thenCacheValue() {
+		// given - precondition or setup
+
+		// when - action or the behaviour that we are going test
+		String value = cache.get(1L, () -> "loaded");
+
+		// then - verify the output
+		assertThat(value).isEqualTo("loaded");
+		assertThat(delegate.get(1L, String.class)).isEqualTo("loaded");
+	}
+
+	@Test
+	@DisplayName("JUnit test for not caching a value loaded before an eviction")
+	void givenEvictionDuringLoad_whenGetWithLoader_thenDoNotCacheValue() {
+		// given - precondition or setup
+
+		// when - action or the behaviour that we are going test
+		// 같은 캐시의 다른 key 를 무효화해도 세대가 바뀐다(같은 key 는 로드가 끝날 때까지 key 락에 막힌다).
+		String value = cache.get(1L, () -> {
+			cache.evict(2L);
+			return "stale";
+		});
+
+		// then - verify the output
+		assertThat(value).isEqualTo("stale");
+		assertThat(delegate.get(1L)).isNull();
+	}
+
+	@Test
+	@DisplayName("JUnit test for not caching a missing value")
+	void givenNullValue_whenGetWithLoader_thenDoNotCache() {
+		// given - precondition or setup
+
+		// when - action or the behaviour that we are going test
+		Object value = cache.get(1L, () -> null);
+
+		// then - verify the output
+		assertThat(value).isNull();
+		assertThat(delegate.get(1L)).isNull();
+	}
+
+	@Test
+	@DisplayName("JUnit test for loading a key once for concurrent lookups")
+	void givenConcurrentLookups_whenGetWithLoader_thenLoadOnce() throws Exception {
+		// given - precondition or setup
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		// when - action or the behaviour that we are going test
+		Future<String> first;
+		Future<String> second;
+		try {
+			first = executor.submit(() -> cache.get(1L, () -> {
+				loads.incrementAndGet();
+				loading.countDown();
+				release.await();
+				return "loaded";
+			}));
+			loading.await(5, TimeUnit.SECONDS);
+			second = executor.submit(() -> cache.get(1L, () -> {
+				loads.incrementAndGet();
+				return "loaded";
+			}));
+			release.countDown();
+
+			// then - verify the output
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(loads).hasValue(1);
+	}
+}
@@ -0,0 +1,212 @@
+package io.jaeyeon.springboottesting.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 두 개의 내장 H2 인스턴스를 primary / replica 대역으로 두고, 각 DB 에 자기 이름을 저장해 어느 쪽에서 읽었는지 확인한다.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+	private ReadWriteRoutingDataSource routingDataSource;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate writeTransaction;
+	private TransactionTemplate readOnlyTransaction;
+
+	@BeforeEach
+	void setup() {
+		primary = database("primary");
+		replica = database("replica");
+		routingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica),
+			ReadWriteRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMillis(50), Duration.ZERO);
+		jdbcTemplate = new JdbcTemplate(routingDataSource);
+
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+		writeTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		routingDataSource.close();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	@DisplayName("JUnit test for routing read-only transactions to an up-to-date replica")
+	void givenCaughtUpReplica_whenReadOnlyTransaction_thenReadFromReplica() throws Exception {
+		// given - precondition or setup
+		routingDataSource.checkReplicaLag();
+
+		// when - action or the behaviour that we are going test
+		String readFrom = readOnlyTransaction.execute(status -> whoami());
+		String writtenTo = writeTransaction.execute(status -> whoami());
+
+		// then - verify the output
+		assertThat(readFrom).isEqualTo("replica");
+		assertThat(writtenTo).isEqualTo("primary");
+		assertThat(whoami()).isEqualTo("primary");
+	}
+
+	@Test
+	@DisplayName("JUnit test for routing reads to primary before the replica lag is known")
+	void givenUncheckedReplica_whenReadOnlyTransaction_thenReadFromPrimary() throws Exception {
+		// when - action or the behaviour that we are going test
+		String readFrom = readOnlyTransaction.execute(status -> whoami());
+
+		// then - verify the output
+		assertThat(readFrom).isEqualTo("primary");
+		assertThat(routingDataSource.getAvailableReplicaCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("JUnit test for falling back to primary when the replica lags behind")
+	void givenLaggingReplica_whenReadOnlyTransaction_thenReadFromPrimary() throws Exception {
+		// given - precondition or setup
+		new JdbcTemplate(primary).update("update employee_table_version set version = 2 where id = 1");
+		routingDataSource.checkReplicaLag();
+		assertThat(readOnlyTransaction.execute(status -> whoami())).isEqualTo("replica");
+
+		// when - action or the behaviour that we are going test
+		Thread.sleep(100);
+		routingDataSource.checkReplicaLag();
+
+		// then - verify the output
+		assertThat(readOnlyTransaction.execute(status -> whoami())).isEqualTo("primary");
+
+		// 복제본이 따라잡으면 다시 복제본에서 읽는다.
+		new JdbcTemplate(replica).update("update employee_table_version set version = 2 where id = 1");
+		routingDataSource.checkReplicaLag();
+		assertThat(readOnlyTransaction.execute(status -> whoami())).isEqualTo("replica");
+	}
+
+	@Test
+	@DisplayName("JUnit test for routing JPA read-only transactions through the lazy connection proxy")
+	void givenJpaTransactionManager_whenReadOnlyTransaction_thenReadFromReplica() throws Exception {
+		// given - precondition or setup
+		routingDataSource.checkReplicaLag();
+		LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+		factoryBean.setDataSource(routingDataSource);
+		factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factoryBean.setPackagesToScan(getClass().getPackageName());
+		factoryBean.afterPropertiesSet();
+		EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+		EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+		JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+		TransactionTemplate jpaReadOnlyTransaction = new TransactionTemplate(transactionManager);
+		jpaReadOnlyTransaction.setReadOnly(true);
+		TransactionTemplate jpaWriteTransaction = new TransactionTemplate(transactionManager);
+
+		try {
+			// when - action or the behaviour that we are going test
+			// JpaTransactionManager 는 read-only 표시 전에 커넥션을 얻지만, 실제 커넥션은 첫 SQL 에서 골라진다.
+			Object readFrom = jpaReadOnlyTransaction.execute(status ->
+				entityManager.createNativeQuery("select name from whoami").getSingleResult());
+			Object writtenTo = jpaWriteTransaction.execute(status ->
+				entityManager.createNativeQuery("select name from whoami").getSingleResult());
+
+			// then - verify the output
+			assertThat(readFrom).isEqualTo("replica");
+			assertThat(writtenTo).isEqualTo("primary");
+		} finally {
+			factoryBean.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("JUnit test for pinning reads of one request to the first chosen replica")
+	void givenPinnedReplica_whenReplicaStartsLagging_thenFallBackToPrimary() throws Exception {
+		// given - precondition or setup
+		routingDataSource.checkReplicaLag();
+
+		try (ReadWriteRoutingDataSource.Pin pin = ReadWriteRoutingDataSource.pin()) {
+			// when - action or the behaviour that we are going test
+			String first = readOnlyTransaction.execute(status -> whoami());
+			new JdbcTemplate(primary).update("update employee_table_version set version = 2 where id = 1");
+			routingDataSource.checkReplicaLag();
+			Thread.sleep(100);
+			routingDataSource.checkReplicaLag();
+			String second = readOnlyTransaction.execute(status -> whoami());
+
+			// then - verify the output
+			assertThat(first).isEqualTo("replica");
+			assertThat(second).isEqualTo("primary");
+		}
+	}
+
+	@Test
+	@DisplayName("JUnit test for sharing the pinned replica with work handed to another thread")
+	void givenPinnedReplica_whenReadOnAnotherThread_thenReadFromSameReplica() throws Exception {
+		// given - precondition or setup
+		// 복제본이 둘이면 고정하지 않은 읽기는 번갈아 가며 다른 복제본을 고른다.
+		EmbeddedDatabase second = database("second");
+		ReadWriteRoutingDataSource twoReplicas = new ReadWriteRoutingDataSource(primary, List.of(replica, second),
+			ReadWriteRoutingDataSource.Selection.ROUND_ROBIN, Duration.ofMillis(50), Duration.ZERO);
+		twoReplicas.checkReplicaLag();
+		JdbcTemplate jdbc = new JdbcTemplate(twoReplicas);
+		TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(twoReplicas));
+		readOnly.setReadOnly(true);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try (ReadWriteRoutingDataSource.Pin pin = ReadWriteRoutingDataSource.pin()) {
+			// when - action or the behaviour that we are going test
+			String first = readOnly.execute(status -> jdbc.queryForObject("select name from whoami", String.class));
+			ReadWriteRoutingDataSource.PinScope scope = ReadWriteRoutingDataSource.currentPin();
+			String propagated = executor.submit(() -> ReadWriteRoutingDataSource.callWithin(scope,
+				() -> readOnly.execute(status -> jdbc.queryForObject("select name from whoami", String.class)))).get();
+			String unpinned = executor.submit(
+				() -> readOnly.execute(status -> jdbc.queryForObject("select name from whoami", String.class))).get();
+
+			// then - verify the output
+			assertThat(propagated).isEqualTo(first);
+			assertThat(unpinned).isNotEqualTo(first);
+		} finally {
+			executor.shutdownNow();
+			twoReplicas.close();
+			second.shutdown();
+		}
+	}
+
+	private String whoami() {
+		return jdbcTemplate.queryForObject("select name from whoami", String.class);
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+			.setType(EmbeddedDatabaseType.H2)
+			.generateUniqueName(true)
+			.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("create table employee_table_version (id bigint primary key, version bigint not null)");
+		jdbcTemplate.update("insert into employee_table_version (id, version) values (1, 1)");
+		jdbcTemplate.execute("create table whoami (name varchar(16))");
+		jdbcTemplate.update("insert into whoami (name) values (?)", name);
+		return database;
+	}
+}
@@ -1,5 +1,6 @@
 package io.jaeyeon.springboottesting.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.*;
 import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.*;
@@ -7,22 +8,42 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeChangePage;
+import io.jaeyeon.springboottesting.dto.EmployeeChangeView;
+import io.jaeyeon.springboottesting.dto.EmployeeMultiGetResult;
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.ChangeFeedExpiredException;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
 import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.service.EmployeeChangeFeedService;
+import io.jaeyeon.springboottesting.service.EmployeeMultiGetService;
 import io.jaeyeon.springboottesting.service.EmployeeService;
 
 @WebMvcTest
@@ -31,6 +52,8 @@ class EmployeeControllerTest {
 	@Autowired private MockMvc mockMvc;
 	@Autowired ObjectMapper objectMapper;
 	@MockBean private EmployeeService employeeService;
+	@MockBean private EmployeeChangeFeedService changeFeedService;
+	@MockBean private EmployeeMultiGetService multiGetService;
 
 	@Test
 	@DisplayName("JUnit test for Post employees REST API")
@@ -61,13 +84,118 @@ class EmployeeControllerTest {
 	}
 
 	@Test
-	@DisplayName("JUnit test for Get All employees REST API")
-	void given_when_then() throws Exception {
+	@DisplayName("JUnit test for Post employees REST API with CBOR body")
+	void givenCborEmployee_whenCreateEmployee_thenReturnCborEmployee() throws Exception {
+		// given - precondition or setup
+		ObjectMapper cborMapper = new CBORMapper();
+		Employee employee = Employee.builder()
+			.firstName("Jaeyeon")
+			.lastName("Cho")
+			.email("cjyeon1022@gmail.com")
+			.build();
+
+		given(employeeService.saveEmployee(any(Employee.class)))
+			.willAnswer((invocation -> invocation.getArgument(0)));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees")
+			.contentType(MediaType.APPLICATION_CBOR)
+			.accept(MediaType.APPLICATION_CBOR)
+			.content(cborMapper.writeValueAsBytes(employee)));
+
+		// then - verify the result or output using assert statements
+		byte[] body = response.andExpect(status().isCreated())
+			.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+			.andReturn().getResponse().getContentAsByteArray();
+		Employee savedEmployee = cborMapper.readValue(body, Employee.class);
+		assertThat(savedEmployee.getFirstName()).isEqualTo(employee.getFirstName());
+		assertThat(savedEmployee.getEmail()).isEqualTo(employee.getEmail());
+	}
+
+	@Test
+	@DisplayName("JUnit test for Post employees REST API with duplicate email")
+	void givenDuplicateEmail_whenCreateEmployee_thenReturn409() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder()
+			.firstName("Jaeyeon")
+			.lastName("Cho")
+			.email("cjyeon1022@gmail.com")
+			.build();
+
+		given(employeeService.saveEmployee(any(Employee.class)))
+			.willThrow(new DuplicateEmailException("Employee already exist with given email:" + employee.getEmail()));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(employee)));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isConflict())
+			.andDo(print());
+	}
+
+	@Test
+	@DisplayName("JUnit test for Post employees batch REST API")
+	void givenEmployeeList_whenCreateEmployees_thenReturnPerRowResults() throws Exception {
 		// given - precondition or setup
 		List<Employee> listOfEmployees = new ArrayList<>();
 		listOfEmployees.add(Employee.builder().firstName("Jaeyeon").lastName("Cho").email("cjyeon1022@gmail.com").build());
-		listOfEmployees.add(Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@google.com").build());
-		given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
+		listOfEmployees.add(Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@gmail.com").build());
+		given(employeeService.saveEmployees(any())).willReturn(List.of(
+			EmployeeBatchResult.created(0, 1L),
+			EmployeeBatchResult.duplicate(1, "cjyeon1022@gmail.com")));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees/batch")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(listOfEmployees)));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.size()", is(2)))
+			.andExpect(jsonPath("$[0].status", is("CREATED")))
+			.andExpect(jsonPath("$[0].id", is(1)))
+			.andExpect(jsonPath("$[1].status", is("DUPLICATE")));
+	}
+
+	@Test
+	@DisplayName("JUnit test for Post employees batch REST API with NDJSON body")
+	void givenNdjsonStream_whenCreateEmployees_thenReadEveryLine() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder().firstName("Jaeyeon").lastName("Cho").email("cjyeon1022@gmail.com").build();
+		Employee employee1 = Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@google.com").build();
+		given(employeeService.saveEmployees(any())).willAnswer(invocation -> {
+			Iterator<Employee> employees = invocation.getArgument(0);
+			List<EmployeeBatchResult> results = new ArrayList<>();
+			while (employees.hasNext()) {
+				employees.next();
+				results.add(EmployeeBatchResult.created(results.size(), (long) results.size() + 1));
+			}
+			return results;
+		});
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees/batch")
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.content(objectMapper.writeValueAsString(employee) + "\n" + objectMapper.writeValueAsString(employee1) + "\n"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.size()", is(2)))
+			.andExpect(jsonPath("$[1].id", is(2)));
+	}
+
+	@Test
+	@DisplayName("JUnit test for Get All employees REST API")
+	void given_when_then() throws Exception {
+		// given - precondition or setup
+		List<EmployeeView> listOfEmployees = new ArrayList<>();
+		listOfEmployees.add(new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L));
+		listOfEmployees.add(new EmployeeView(2L, "Brin", "Sergey", "cjyeon1022@google.com", 0L));
+		given(employeeService.getEmployees(null, 100)).willReturn(listOfEmployees);
 
 		// when - action or behaviour that we are going test
 		ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -76,7 +204,100 @@ class EmployeeControllerTest {
 		response
 			.andExpect(status().isOk())
 			.andDo(print())
-			.andExpect(jsonPath("$.size()", is(listOfEmployees.size())));
+			.andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+			.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	@DisplayName("JUnit test for Get All employees REST API with matching If-None-Match")
+	void givenUnchangedTable_whenGetEmployees_thenReturn304() throws Exception {
+		// given - precondition or setup
+		given(employeeService.getTableVersion()).willReturn(5L);
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees")
+			.header(HttpHeaders.IF_NONE_MATCH, "\"5\""));
+
+		// then - verify the result or output using assert statements
+		response
+			.andExpect(status().isNotModified())
+			.andDo(print())
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"5\""))
+			.andExpect(content().string(""));
+		verify(employeeService, never()).getEmployees(any(), anyInt());
+	}
+
+	@Test
+	@DisplayName("JUnit test for Get employees REST API with keyset pagination")
+	void givenFullPage_whenGetEmployees_thenReturnNextLink() throws Exception {
+		// given - precondition or setup
+		List<EmployeeView> listOfEmployees = new ArrayList<>();
+		listOfEmployees.add(new EmployeeView(11L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L));
+		listOfEmployees.add(new EmployeeView(12L, "Brin", "Sergey", "cjyeon1022@google.com", 0L));
+		given(employeeService.getEmployees(10L, 2)).willReturn(listOfEmployees);
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees")
+			.param("after", "10")
+			.param("limit", "2"));
+
+		// then - verify the result or output using assert statements
+		response
+			.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.size()", is(2)))
+			.andExpect(header().string(HttpHeaders.LINK, containsString("after=12")))
+			.andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")));
+	}
+
+	@Test
+	@DisplayName("JUnit test for search employees REST API")
+	void givenSearchCondition_whenSearchEmployees_thenReturnMatchingEmployees() throws Exception {
+		// given - precondition or setup
+		List<EmployeeView> listOfEmployees = List.of(new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L));
+		given(employeeService.searchEmployees(new EmployeeSearchCondition(null, "Ch", "gmail.com"), null, 100))
+			.willReturn(listOfEmployees);
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees/search")
+			.param("lastName", "Ch")
+			.param("emailDomain", "gmail.com"));
+
+		// then - verify the result or output using assert statements
+		response
+			.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.size()", is(1)))
+			.andExpect(jsonPath("$[0].lastName", is("Cho")))
+			.andExpect(header().doesNotExist(HttpHeaders.LINK));
+	}
+
+	@Test
+	@DisplayName("JUnit test for streaming employees as NDJSON REST API")
+	void givenEmployees_whenStreamEmployees_thenReturnNdjson() throws Exception {
+		// given - precondition or setup
+		EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		EmployeeView employee1 = new EmployeeView(2L, "Brin", "Sergey", "cjyeon1022@google.com", 0L);
+		willAnswer(invocation -> {
+			Consumer<EmployeeView> consumer = invocation.getArgument(0);
+			consumer.accept(employee);
+			consumer.accept(employee1);
+			return null;
+		}).given(employeeService).streamEmployees(any());
+
+		// when - action or behaviour that we are going test
+		// StreamingResponseBody 는 비동기로 처리되므로 asyncDispatch 로 결과를 받아온다.
+		MvcResult mvcResult = mockMvc.perform(get("/api/employees").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		ResultActions response = mockMvc.perform(asyncDispatch(mvcResult));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(content().string(objectMapper.writeValueAsString(employee) + "\n"
+				+ objectMapper.writeValueAsString(employee1) + "\n"));
 	}
 
 	@Test
@@ -84,11 +305,7 @@ class EmployeeControllerTest {
 	void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
 		// given - precondition or setup
 		long employeeId = 1L;
-		Employee employee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
+		EmployeeView employee = new EmployeeView(employeeId, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
 
 		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
 
@@ -98,9 +315,76 @@ class EmployeeControllerTest {
 		// then - verify the result or output using assert statements
 		response.andExpect(status().isOk())
 			.andDo(print())
-			.andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
-			.andExpect(jsonPath("$.lastName", is(employee.getLastName())))
-			.andExpect(jsonPath("$.email", is(employee.getEmail())));
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+			.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+			.andExpect(jsonPath("$.firstName", is(employee.firstName())))
+			.andExpect(jsonPath("$.lastName", is(employee.lastName())))
+			.andExpect(jsonPath("$.email", is(employee.email())));
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee by id REST API with matching If-None-Match")
+	void givenCurrentVersion_whenGetEmployeeById_thenReturn304() throws Exception {
+		// given - precondition or setup
+		long employeeId = 1L;
+		EmployeeView employee = new EmployeeView(employeeId, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 2L);
+
+		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+			.header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isNotModified())
+			.andDo(print())
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""))
+			.andExpect(content().string(""));
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee by id REST API returning a weak ETag for a sparse CBOR representation")
+	void givenFieldsAndCbor_whenGetEmployeeById_thenReturnWeakETagVaryingByAccept() throws Exception {
+		// given - precondition or setup
+		long employeeId = 1L;
+		EmployeeView employee = new EmployeeView(employeeId, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 2L);
+
+		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+			.param("fields", "id,email")
+			.accept(MediaType.APPLICATION_CBOR));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""))
+			.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee by id REST API with sparse fields")
+	void givenFields_whenGetEmployeeById_thenReturnSelectedFieldsOnly() throws Exception {
+		// given - precondition or setup
+		long employeeId = 1L;
+		EmployeeView employee = new EmployeeView(employeeId, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+
+		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+			.param("fields", "id,email"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.id", is(1)))
+			.andExpect(jsonPath("$.email", is(employee.email())))
+			.andExpect(jsonPath("$.firstName").doesNotExist())
+			.andExpect(jsonPath("$.lastName").doesNotExist());
 	}
 
 	@Test
@@ -121,24 +405,16 @@ class EmployeeControllerTest {
 
 	@Test
 	@DisplayName("JUnit test for update employee REST API - positive scenario")
-	void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdateEmployeeObject() throws Exception {
+	void givenUpdatedEmployee_whenUpdateEmployee_thenReturn204() throws Exception {
 		// given - precondition or setup
 		long employeeId = 1L;
-		Employee savedEmployee = Employee.builder()
-			.id(employeeId)
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-
 		Employee updatedEmployee = Employee.builder()
 			.firstName("Brin")
 			.lastName("Sergey")
 			.email("Sergey@ggoogle.com")
 			.build();
 
-		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-		given(employeeService.updateEmployee(any())).willReturn(updatedEmployee);
+		willDoNothing().given(employeeService).updateEmployee(eq(employeeId), any(Employee.class), isNull());
 
 		// when - action or behaviour that we are going test
 		ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -146,15 +422,10 @@ class EmployeeControllerTest {
 			.content(objectMapper.writeValueAsString(updatedEmployee)));
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isOk())
-			.andDo(print())
-			.andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())))
-			.andExpect(jsonPath("$.lastName", is(updatedEmployee.getLastName())))
-			.andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())))
-			// 반환된 JSON 객체에서 "id" 필드가 존재하지 않거나 null 이면 테스트가 성공하게 된다.
-			// 이 테스트는 "id" 필드가 정상적으로 생성되지 않았을 때를 대비한 것으로서,
-			// 해당 필드가 필수 필드이고 이 필드가 올바르게 생성되었는지 검증하는 것이 중요.
-			.andExpect(jsonPath("$.id", is(nullValue())));
+		// 단일 UPDATE 로 처리하므로 사전 조회(getEmployeeById)를 하지 않는다.
+		response.andExpect(status().isNoContent())
+			.andDo(print());
+		verify(employeeService, never()).getEmployeeById(any());
 	}
 
 	@Test
@@ -162,21 +433,14 @@ class EmployeeControllerTest {
 	void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
 		// given - precondition or setup
 		long employeeId = 1L;
-		Employee savedEmployee = Employee.builder()
-			.id(employeeId)
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-
 		Employee updatedEmployee = Employee.builder()
 			.firstName("Brin")
 			.lastName("Sergey")
 			.email("Sergey@ggoogle.com")
 			.build();
 
-		given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-		given(employeeService.updateEmployee(any())).willReturn(updatedEmployee);
+		willThrow(new ResourceNotFoundException("Employee not exist with given id:" + employeeId))
+			.given(employeeService).updateEmployee(eq(employeeId), any(Employee.class), isNull());
 
 		// when - action or behaviour that we are going test
 		ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
@@ -188,6 +452,29 @@ class EmployeeControllerTest {
 			.andDo(print());
 	}
 
+	@Test
+	@DisplayName("JUnit test for update employee REST API - stale If-Match version")
+	void givenStaleVersion_whenUpdateEmployee_thenReturn412() throws Exception {
+		// given - precondition or setup
+		long employeeId = 1L;
+		Employee updatedEmployee = Employee.builder()
+			.firstName("Brin")
+			.build();
+
+		willThrow(new OptimisticLockingFailureException("Employee was modified by another request:" + employeeId))
+			.given(employeeService).updateEmployee(eq(employeeId), any(Employee.class), eq(3L));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+			.header(HttpHeaders.IF_MATCH, "W/\"3\"")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(updatedEmployee)));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isPreconditionFailed())
+			.andDo(print());
+	}
+
 	@Test
 	@DisplayName("JUnit test for delete employee REST API")
 	void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
@@ -202,4 +489,129 @@ class EmployeeControllerTest {
 		response.andExpect(status().isOk())
 			.andDo(print());
 	}
+
+	@Test
+	@DisplayName("JUnit test for bulk delete employees by ids REST API")
+	void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+		// given - precondition or setup
+		given(employeeService.deleteEmployees(Set.of(1L, 2L, 3L))).willReturn(3);
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.deleted", is(3)));
+	}
+
+	@Test
+	@DisplayName("JUnit test for bulk delete employees REST API without any filter")
+	void givenNoFilter_whenDeleteEmployees_thenReturn400() throws Exception {
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(delete("/api/employees"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isBadRequest())
+			.andDo(print());
+		verify(employeeService, never()).deleteEmployees(any(EmployeeSearchCondition.class));
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employees by ids REST API")
+	void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestOrderAndMissingIds() throws Exception {
+		// given - precondition or setup
+		EmployeeView first = new EmployeeView(3L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		EmployeeView second = new EmployeeView(1L, "John", "Cena", "cena@gmail.com", 0L);
+		given(multiGetService.getMaxIds()).willReturn(1000);
+		given(multiGetService.getEmployees(List.of(3L, 2L, 1L)))
+			.willReturn(new EmployeeMultiGetResult(List.of(first, second), List.of(2L)));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "3,2,1"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.employees[0].id", is(3)))
+			.andExpect(jsonPath("$.employees[1].id", is(1)))
+			.andExpect(jsonPath("$.missing[0]", is(2)));
+	}
+
+	@Test
+	@DisplayName("JUnit test for POST employees lookup REST API")
+	void givenEmployeeIds_whenLookupEmployees_thenReturnEmployees() throws Exception {
+		// given - precondition or setup
+		EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		given(multiGetService.getMaxIds()).willReturn(1000);
+		given(multiGetService.getEmployees(List.of(1L, 2L)))
+			.willReturn(new EmployeeMultiGetResult(List.of(employee), List.of(2L)));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(List.of(1L, 2L))));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.employees.size()", is(1)))
+			.andExpect(jsonPath("$.missing[0]", is(2)));
+	}
+
+	@Test
+	@DisplayName("JUnit test for POST employees lookup REST API with too many ids")
+	void givenTooManyIds_whenLookupEmployees_thenReturn400() throws Exception {
+		// given - precondition or setup
+		given(multiGetService.getMaxIds()).willReturn(2);
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(post("/api/employees/lookup")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(List.of(1L, 2L, 3L))));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isBadRequest())
+			.andDo(print());
+		verify(multiGetService, never()).getEmployees(any());
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee changes REST API")
+	void givenSince_whenGetChanges_thenReturnChangesAndNextCursor() throws Exception {
+		// given - precondition or setup
+		EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		given(changeFeedService.getChanges(3L, 100)).willReturn(new EmployeeChangePage(List.of(
+			new EmployeeChangeView(4L, 1L, EmployeeChange.Type.UPDATED, Instant.parse("2024-05-01T00:00:00Z"), employee),
+			new EmployeeChangeView(5L, 2L, EmployeeChange.Type.DELETED, Instant.parse("2024-05-01T00:00:01Z"), null)), 5L));
+
+		// when - action or behaviour that we are going test
+		MvcResult result = mockMvc.perform(get("/api/employees/changes").param("since", "3"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isOk())
+			.andDo(print())
+			.andExpect(jsonPath("$.next", is(5)))
+			.andExpect(jsonPath("$.changes[0].type", is("UPDATED")))
+			.andExpect(jsonPath("$.changes[0].employee.email", is(employee.email())))
+			.andExpect(jsonPath("$.changes[1].type", is("DELETED")));
+		verify(changeFeedService, never()).awaitChangeAfter(anyLong(), any());
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee changes REST API with an expired cursor")
+	void givenExpiredSince_whenGetChanges_thenReturn410() throws Exception {
+		// given - precondition or setup
+		given(changeFeedService.getChanges(0L, 100)).willThrow(new ChangeFeedExpiredException("expired"));
+
+		// when - action or behaviour that we are going test
+		ResultActions response = mockMvc.perform(get("/api/employees/changes").param("since", "0"));
+
+		// then - verify the result or output using assert statements
+		response.andExpect(status().isGone())
+			.andDo(print());
+	}
 }
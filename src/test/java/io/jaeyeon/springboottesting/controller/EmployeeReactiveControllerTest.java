@@ -0,0 +1,109 @@
+package io.jaeyeon.springboottesting.controller;
+
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeReactiveService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ActiveProfiles("reactive")
+@WebFluxTest(EmployeeReactiveController.class)
+class EmployeeReactiveControllerTest {
+
+	@Autowired private WebTestClient webTestClient;
+	@MockBean private EmployeeReactiveService employeeReactiveService;
+
+	@Test
+	@DisplayName("JUnit test for Post employees reactive REST API")
+	void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder()
+			.firstName("Jaeyeon")
+			.lastName("Cho")
+			.email("cjyeon1022@gmail.com")
+			.build();
+		given(employeeReactiveService.saveEmployee(any(Employee.class)))
+			.willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		// when - action or behaviour that we are going test
+		WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(employee)
+			.exchange();
+
+		// then - verify the result or output using assert statements
+		response.expectStatus().isCreated()
+			.expectBody()
+			.jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+			.jsonPath("$.email").isEqualTo(employee.getEmail());
+	}
+
+	@Test
+	@DisplayName("JUnit test for streaming employees reactive REST API")
+	void givenEmployees_whenStreamEmployees_thenReturnNdjson() throws Exception {
+		// given - precondition or setup
+		given(employeeReactiveService.streamEmployees()).willReturn(Flux.just(
+			new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L),
+			new EmployeeView(2L, "Brin", "Sergey", "cjyeon1022@google.com", 0L)));
+
+		// when - action or behaviour that we are going test
+		Flux<EmployeeView> response = webTestClient.get().uri("/api/employees")
+			.accept(MediaType.APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.returnResult(EmployeeView.class)
+			.getResponseBody();
+
+		// then - verify the result or output using assert statements
+		StepVerifier.create(response)
+			.expectNextMatches(employee -> employee.id() == 1L)
+			.expectNextMatches(employee -> employee.id() == 2L)
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("JUnit test for GET employee by id reactive REST API (negative scenario)")
+	void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
+		// given - precondition or setup
+		given(employeeReactiveService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+		// when - action or behaviour that we are going test
+		WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", 1L).exchange();
+
+		// then - verify the result or output using assert statements
+		response.expectStatus().isNotFound();
+	}
+
+	@Test
+	@DisplayName("JUnit test for update employee reactive REST API - malformed If-Match")
+	void givenMalformedIfMatch_whenUpdateEmployee_thenReturnPreconditionFailed() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder().firstName("Jay").build();
+
+		// when - action or behaviour that we are going test
+		WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", 1L)
+			.contentType(MediaType.APPLICATION_JSON)
+			.header(HttpHeaders.IF_MATCH, "\"abc\"")
+			.bodyValue(employee)
+			.exchange();
+
+		// then - verify the result or output using assert statements
+		response.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		verify(employeeReactiveService, never()).updateEmployee(any(), any(), any());
+	}
+}
@@ -1,207 +1,235 @@
 package io.jaeyeon.springboottesting.integration;
 
-import static org.hamcrest.CoreMatchers.*;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.assertj.core.api.Assertions.*;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.ResultActions;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
 
 import io.jaeyeon.springboottesting.model.Employee;
 import io.jaeyeon.springboottesting.repository.EmployeeRepository;
-
-@AutoConfigureMockMvc
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+
+/**
+ * 실제 서버(Tomcat)를 띄우고 HTTP 로 요청해 필터, 스트리밍 응답, long-poll 비동기 처리와
+ * 단건 조회의 캐시 / batcher 를 커밋된 데이터로 검증한다.
+ * 데이터는 지우지 않고 쌓이므로 테스트마다 고유한 이메일(도메인)로 만든 행만 검증한다.
+ */
+@ActiveProfiles("test")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class EmployeeControllerITest {
 
-	// MockMvc 클래스를 사용하여 다른 HTTP 요청을 수행
+	// 실제 서버에 HTTP 요청을 보내는 클라이언트
 	@Autowired
-	private MockMvc mockMvc;
+	private WebTestClient webTestClient;
 
 	@Autowired
 	private EmployeeRepository employeeRepository;
 
 	@Autowired
-	private ObjectMapper objectMapper;
-
-	@BeforeEach
-	void setup() {
-		employeeRepository.deleteAll();
-	}
+	private EmployeeTableVersionRepository tableVersionRepository;
 
 	@Test
 	@DisplayName("JUnit test for Post employees REST API")
 	void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
 		// given - precondition or setup
-		Employee employee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
+		Employee employee = employee("Jaeyeon", "Cho", uniqueDomain());
 
 		// when - action or behaviour that we are going test
-		// mockMvc: REST API 호출하기 위해 사용
-		ResultActions response = mockMvc.perform(post("/api/employees")
+		WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
 			.contentType(MediaType.APPLICATION_JSON)
-			.content(objectMapper.writeValueAsString(employee)));
+			.bodyValue(employee)
+			.exchange();
+
+		// then - verify the result or output using assert statements
+		response.expectStatus().isCreated()
+			.expectBody()
+			.jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+			.jsonPath("$.lastName").isEqualTo(employee.getLastName())
+			.jsonPath("$.email").isEqualTo(employee.getEmail());
+	}
+
+	@Test
+	@DisplayName("JUnit test for search employees REST API")
+	void givenEmployeesOfDomain_whenSearchEmployees_thenReturnOnlyThem() throws Exception {
+		// given - precondition or setup
+		String domain = uniqueDomain();
+		employeeRepository.saveAll(List.of(employee("Jaeyeon", "Cho", domain), employee("Brin", "Sergey", domain)));
+
+		// when - action or behaviour that we are going test
+		WebTestClient.ResponseSpec response = webTestClient.get()
+			.uri(uri -> uri.path("/api/employees/search").queryParam("emailDomain", domain).build())
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		// JSON 값이 포함되어 있는지 여부 확인 (예상 JSON 값이 올바른 실제 JSON 값을 검증할 것인지)
-		response.andDo(print())
-			.andExpect(status().isCreated())
-			.andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
-			.andExpect(jsonPath("$.lastName", is(employee.getLastName())))
-			.andExpect(jsonPath("$.email", is(employee.getEmail())));
+		response.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.size()").isEqualTo(2);
 	}
 
 	@Test
-	@DisplayName("JUnit test for Get All employees REST API")
-	void given_when_then() throws Exception {
+	@DisplayName("JUnit test for streaming employees REST API as NDJSON")
+	void givenEmployee_whenStreamEmployees_thenReturnNdjsonLine() throws Exception {
 		// given - precondition or setup
-		List<Employee> listOfEmployees = new ArrayList<>();
-		listOfEmployees.add(Employee.builder().firstName("Jaeyeon").lastName("Cho").email("cjyeon1022@gmail.com").build());
-		listOfEmployees.add(Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@google.com").build());
-		employeeRepository.saveAll(listOfEmployees);
+		Employee employee = employeeRepository.save(employee("Jaeyeon", "Cho", uniqueDomain()));
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(get("/api/employees"));
+		WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees")
+			.accept(MediaType.APPLICATION_NDJSON)
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response
-			.andExpect(status().isOk())
-			.andDo(print())
-			.andExpect(jsonPath("$.size()", is(listOfEmployees.size())));
+		String body = response.expectStatus().isOk()
+			.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+		assertThat(body).contains("\"email\":\"" + employee.getEmail() + "\"");
 	}
 
 	@Test
 	@DisplayName("JUnit test for GET employee by id REST API (positive scenario - valid employee id)")
 	void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
 		// given - precondition or setup
-		Employee employee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-		employeeRepository.save(employee);
+		Employee employee = employeeRepository.save(employee("Jaeyeon", "Cho", uniqueDomain()));
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(get("/api/employees/{id}", employee.getId()));
+		WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employee.getId())
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isOk())
-			.andDo(print())
-			.andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
-			.andExpect(jsonPath("$.lastName", is(employee.getLastName())))
-			.andExpect(jsonPath("$.email", is(employee.getEmail())));
+		response.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+			.jsonPath("$.lastName").isEqualTo(employee.getLastName())
+			.jsonPath("$.email").isEqualTo(employee.getEmail());
 	}
 
 	@Test
 	@DisplayName("JUnit test for GET employee by id REST API (negative scenario - valid employee id)")
 	void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
 		// given - precondition or setup
-		long employeeId = 1L;
-		Employee employee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-		employeeRepository.save(employee);
+		long employeeId = Long.MAX_VALUE;
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
+		WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employeeId)
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isNotFound())
-			.andDo(print());
+		response.expectStatus().isNotFound();
 	}
 
 	@Test
 	@DisplayName("JUnit test for update employee REST API - positive scenario")
-	void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdateEmployeeObject() throws Exception {
+	void givenUpdatedEmployee_whenUpdateEmployee_thenUpdateSavedEmployee() throws Exception {
 		// given - precondition or setup
-		Employee savedEmployee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-		employeeRepository.save(savedEmployee);
+		Employee savedEmployee = employeeRepository.save(employee("Jaeyeon", "Cho", uniqueDomain()));
+		// 변경 전 값을 캐시에 올려 둔다.
+		webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId())
+			.exchange()
+			.expectStatus().isOk();
 
-		Employee updatedEmployee = Employee.builder()
-			.firstName("Brin")
-			.lastName("Sergey")
-			.email("Sergey@ggoogle.com")
-			.build();
+		Employee updatedEmployee = employee("Brin", "Sergey", uniqueDomain());
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+		WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", savedEmployee.getId())
 			.contentType(MediaType.APPLICATION_JSON)
-			.content(objectMapper.writeValueAsString(updatedEmployee)));
+			.bodyValue(updatedEmployee)
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isOk())
-			.andDo(print())
-			.andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())))
-			.andExpect(jsonPath("$.lastName", is(updatedEmployee.getLastName())))
-			.andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())));
+		response.expectStatus().isNoContent();
+		webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId())
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.firstName").isEqualTo(updatedEmployee.getFirstName())
+			.jsonPath("$.lastName").isEqualTo(updatedEmployee.getLastName())
+			.jsonPath("$.email").isEqualTo(updatedEmployee.getEmail());
 	}
 
 	@Test
 	@DisplayName("JUnit test for update employee REST API - negative scenario")
 	void givenUpdatedEmployee_whenUpdateEmployee_thenReturn404() throws Exception {
 		// given - precondition or setup
-		long employeeId = 1L;
-		Employee savedEmployee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-		employeeRepository.save(savedEmployee);
-
-		Employee updatedEmployee = Employee.builder()
-			.firstName("Brin")
-			.lastName("Sergey")
-			.email("Sergey@ggoogle.com")
-			.build();
+		long employeeId = Long.MAX_VALUE;
+		Employee updatedEmployee = employee("Brin", "Sergey", uniqueDomain());
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+		WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", employeeId)
 			.contentType(MediaType.APPLICATION_JSON)
-			.content(objectMapper.writeValueAsString(updatedEmployee)));
+			.bodyValue(updatedEmployee)
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isNotFound())
-			.andDo(print());
+		response.expectStatus().isNotFound();
 	}
 
 	@Test
 	@DisplayName("JUnit test for delete employee REST API")
 	void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
 		// given - precondition or setup
-		Employee savedEmployee = Employee.builder()
-			.firstName("Jaeyeon")
-			.lastName("Cho")
-			.email("cjyeon1022@gmail.com")
-			.build();
-		employeeRepository.save(savedEmployee);
+		Employee savedEmployee = employeeRepository.save(employee("Jaeyeon", "Cho", uniqueDomain()));
+		webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId())
+			.exchange()
+			.expectStatus().isOk();
 
 		// when - action or behaviour that we are going test
-		ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
+		WebTestClient.ResponseSpec response = webTestClient.delete().uri("/api/employees/{id}", savedEmployee.getId())
+			.exchange();
 
 		// then - verify the result or output using assert statements
-		response.andExpect(status().isOk())
-			.andDo(print());
+		response.expectStatus().isOk();
+		webTestClient.get().uri("/api/employees/{id}", savedEmployee.getId())
+			.exchange()
+			.expectStatus().isNotFound();
+	}
+
+	@Test
+	@DisplayName("JUnit test for long-poll changes REST API")
+	void givenWaitingClient_whenCreateEmployee_thenReturnChange() throws Exception {
+		// given - precondition or setup
+		long since = tableVersionRepository.findCurrentVersion().orElse(0L);
+		CompletableFuture<String> changes = CompletableFuture.supplyAsync(() -> webTestClient.get()
+			.uri(uri -> uri.path("/api/employees/changes").queryParam("since", since).queryParam("wait", "PT10S").build())
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody());
+		Employee employee = employee("Jaeyeon", "Cho", uniqueDomain());
+
+		// when - action or behaviour that we are going test
+		webTestClient.post().uri("/api/employees")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(employee)
+			.exchange()
+			.expectStatus().isCreated();
+
+		// then - verify the result or output using assert statements
+		assertThat(changes.get(15, TimeUnit.SECONDS))
+			.contains("\"CREATED\"")
+			.contains("\"email\":\"" + employee.getEmail() + "\"");
+	}
+
+	private static Employee employee(String firstName, String lastName, String domain) {
+		return Employee.builder()
+			.firstName(firstName)
+			.lastName(lastName)
+			.email(UUID.randomUUID() + "@" + domain)
+			.build();
+	}
+
+	private static String uniqueDomain() {
+		return UUID.randomUUID() + ".example.com";
 	}
 }
@@ -0,0 +1,112 @@
+package io.jaeyeon.springboottesting.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+
+/**
+ * 같은 부하를 플랫폼 스레드 모드와 가상 스레드 모드에 각각 걸어 처리량을 비교한다.
+ * 동시 요청 수가 Tomcat 스레드 풀보다 클 때 차이가 드러나며, 결과는 로그로 남긴다.
+ * 일반 test 태스크에서는 제외되고 ./gradlew throughputTest 로만 실행한다.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EmployeeControllerThroughputITest {
+
+	private static final int CONCURRENCY = 400;
+	private static final int REQUESTS_PER_CLIENT = 25;
+	private static final Logger log = LoggerFactory.getLogger(EmployeeControllerThroughputITest.class);
+
+	@Nested
+	@TestPropertySource(properties = {"spring.threads.virtual.enabled=false", "server.tomcat.threads.max=50"})
+	class PlatformThreads {
+
+		@LocalServerPort private int port;
+		@Autowired private EmployeeRepository employeeRepository;
+
+		@Test
+		@DisplayName("Load test for GET employees REST API on platform threads")
+		void givenConcurrentClients_whenGetEmployees_thenMeasureThroughput() throws Exception {
+			measureThroughput("platform", port, employeeRepository);
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = {"spring.threads.virtual.enabled=true", "server.tomcat.threads.max=50"})
+	class VirtualThreads {
+
+		@LocalServerPort private int port;
+		@Autowired private EmployeeRepository employeeRepository;
+
+		@Test
+		@DisplayName("Load test for GET employees REST API on virtual threads")
+		void givenConcurrentClients_whenGetEmployees_thenMeasureThroughput() throws Exception {
+			measureThroughput("virtual", port, employeeRepository);
+		}
+	}
+
+	private static void measureThroughput(String mode, int port, EmployeeRepository employeeRepository) throws Exception {
+		// given - precondition or setup
+		String suffix = UUID.randomUUID().toString();
+		employeeRepository.saveAll(IntStream.range(0, 50)
+			.mapToObj(i -> Employee.builder().firstName("Jaeyeon").lastName("Cho").email(i + "-" + suffix + "@gmail.com").build())
+			.toList());
+
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?limit=20")).build();
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+
+		// when - action or behaviour that we are going test
+		long started = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < CONCURRENCY; i++) {
+				futures.add(clients.submit(() -> {
+					for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+						int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+						(status == 200 ? succeeded : rejected).incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+		double throughput = succeeded.get() / seconds;
+
+		// then - verify the result or output using assert statements
+		log.info("[{} threads] {} ok, {} rejected, {} req/s", mode, succeeded.get(), rejected.get(), String.format("%.1f", throughput));
+		assertThat(rejected.get()).isZero();
+		assertThat(succeeded.get()).isEqualTo(CONCURRENCY * REQUESTS_PER_CLIENT);
+	}
+}
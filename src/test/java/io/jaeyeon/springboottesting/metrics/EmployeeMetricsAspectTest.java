@@ -0,0 +1,129 @@
+package io.jaeyeon.springboottesting.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import io.jaeyeon.springboottesting.service.EmployeeEmailIndex;
+import io.jaeyeon.springboottesting.service.EmployeeLookupBatcher;
+import io.jaeyeon.springboottesting.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeMetricsAspectTest {
+
+	@Mock private EmployeeRepository employeeRepository;
+	@Mock private EmployeeTableVersionRepository tableVersionRepository;
+	@Mock private EmployeeChangeRepository changeRepository;
+	@Mock private ApplicationEventPublisher eventPublisher;
+	@Mock private PlatformTransactionManager transactionManager;
+	@Mock private EntityManager entityManager;
+	@Mock private EmployeeEmailIndex emailIndex;
+	private MeterRegistry meterRegistry;
+	private EmployeeService employeeService;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		EmployeeShardRouter shardRouter = EmployeeShardRouter.unsharded();
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new EmployeeService(employeeRepository, tableVersionRepository,
+			changeRepository, eventPublisher, new EmployeeLookupBatcher(employeeRepository, shardRouter, Duration.ZERO, 100),
+			shardRouter, emailIndex, transactionManager, entityManager));
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAspect(new EmployeeMetricsAspect(meterRegistry));
+		employeeService = proxyFactory.getProxy();
+	}
+
+	@Test
+	@DisplayName("JUnit test for timing getEmployeeById with found / not-found outcome")
+	void givenLookups_whenGetEmployeeById_thenRecordOutcome() throws Exception {
+		// given - precondition or setup
+		EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		given(employeeRepository.findViewsByIdIn(List.of(1L))).willReturn(List.of(employee));
+		given(employeeRepository.findViewsByIdIn(List.of(2L))).willReturn(List.of());
+
+		// when - action or the behaviour that we are going test
+		employeeService.getEmployeeById(1L);
+		employeeService.getEmployeeById(2L);
+		employeeService.getEmployeeById(2L);
+
+		// then - verify the output
+		assertThat(timer("getEmployeeById", "found").count()).isEqualTo(1);
+		assertThat(timer("getEmployeeById", "not-found").count()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("JUnit test for timing saveEmployee with duplicate outcome")
+	void givenDuplicateEmail_whenSaveEmployee_thenRecordDuplicate() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder().firstName("Jaeyeon").lastName("Cho").email("cjyeon1022@gmail.com").build();
+		given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+			new ConstraintViolationException("duplicate", new SQLException(), "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT)));
+
+		// when - action or the behaviour that we are going test
+		assertThrows(DuplicateEmailException.class, () -> employeeService.saveEmployee(employee));
+
+		// then - verify the output
+		assertThat(timer("saveEmployee", "duplicate").count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("JUnit test for timing saveEmployee with error outcome on other integrity violations")
+	void givenNotNullViolation_whenSaveEmployee_thenRecordError() throws Exception {
+		// given - precondition or setup
+		Employee employee = Employee.builder().firstName("Jaeyeon").lastName("Cho").email("cjyeon1022@gmail.com").build();
+		given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("not null",
+			new ConstraintViolationException("not null", new SQLException(), null)));
+
+		// when - action or the behaviour that we are going test
+		assertThrows(DataIntegrityViolationException.class, () -> employeeService.saveEmployee(employee));
+
+		// then - verify the output
+		assertThat(timer("saveEmployee", "error").count()).isEqualTo(1);
+		assertThat(meterRegistry.find(EmployeeMetricsAspect.SERVICE_TIMER).tag("outcome", "duplicate").timer()).isNull();
+	}
+
+	@Test
+	@DisplayName("JUnit test for timing deleteEmployee with success outcome")
+	void givenEmployeeId_whenDeleteEmployee_thenRecordSuccess() throws Exception {
+		// when - action or the behaviour that we are going test
+		employeeService.deleteEmployee(1L);
+
+		// then - verify the output
+		assertThat(timer("deleteEmployee", "success").count()).isEqualTo(1);
+		assertThat(meterRegistry.find(EmployeeMetricsAspect.SERVICE_TIMER).tag("outcome", "error").timer()).isNull();
+	}
+
+	private Timer timer(String method, String outcome) {
+		return meterRegistry.get(EmployeeMetricsAspect.SERVICE_TIMER)
+			.tag("method", method)
+			.tag("outcome", outcome)
+			.timer();
+	}
+}
@@ -2,6 +2,7 @@ package io.jaeyeon.springboottesting.repository;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,17 +12,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
 
 import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.service.EmployeeEmailDomainBackfill;
 
 /**
- * 메모리 내 데이터베이스 지원이 비활성화되며 MySQL을 구성했기 때문에 MySQL을 사용
+ * 테스트용 내장 데이터베이스로 교체하지 않고, test 프로파일에 구성된 데이터소스(H2 MySQL 모드)를 그대로 사용
  */
 @DataJpaTest
+@ActiveProfiles("test")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EmployeeEmailDomainBackfill.class, EmployeeShardRouter.class})
 class EmployeeRepositoryITest {
 
 	@Autowired private EmployeeRepository employeeRepository;
+	@Autowired private EmployeeEmailDomainBackfill emailDomainBackfill;
+	@Autowired private TestEntityManager testEntityManager;
 
 	private Employee employee;
 
@@ -32,8 +41,6 @@ class EmployeeRepositoryITest {
 			.lastName("Cho")
 			.email("cjyeon1022@gmail.com")
 			.build();
-
-		employeeRepository.deleteAll();
 	}
 
 	@Test
@@ -144,4 +151,44 @@ class EmployeeRepositoryITest {
 		// then - verify the output
 		assertThat(savedEmployee).isNotNull();
 	}
+
+	@Test
+	@DisplayName("JUnit test for backfill email domain operation")
+	void givenEmployeeWithoutEmailDomain_whenBackfillEmailDomain_thenFillSameDomainAsOnSave() throws Exception {
+		// given - precondition or setup
+		// 따옴표로 감싼 local part 에는 '@' 가 들어갈 수 있다. 도메인은 마지막 '@' 뒤이다.
+		employee = Employee.builder().firstName("Jaeyeon").lastName("Cho").email("\"cjyeon@home\"@Gmail.com").build();
+		employeeRepository.saveAndFlush(employee);
+		String domainOnSave = employee.getEmailDomain();
+		testEntityManager.getEntityManager()
+			.createNativeQuery("update employees set email_domain = null where id = :id")
+			.setParameter("id", employee.getId())
+			.executeUpdate();
+
+		// when - action or the behaviour that we are going test
+		int filled = emailDomainBackfill.backfill();
+		testEntityManager.clear();
+
+		// then - verify the output
+		assertThat(filled).isEqualTo(1);
+		assertThat(domainOnSave).isEqualTo("gmail.com");
+		assertThat(employeeRepository.findById(employee.getId()).get().getEmailDomain()).isEqualTo(domainOnSave);
+		assertThat(emailDomainBackfill.backfill()).isZero();
+	}
+
+	@Test
+	@DisplayName("JUnit test for find emails operation including soft-deleted employees")
+	void givenSoftDeletedEmployee_whenFindEmailsIn_thenReturnItsEmail() throws Exception {
+		// given - precondition or setup
+		employeeRepository.saveAndFlush(employee);
+		employeeRepository.softDeleteByIdIn(List.of(employee.getId()), Instant.now());
+		testEntityManager.clear();
+
+		// when - action or the behaviour that we are going test
+		List<String> emails = employeeRepository.findEmailsIn(List.of(employee.getEmail(), "cjyeon1022@google.com"));
+
+		// then - verify the output
+		assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+		assertThat(emails).containsExactly(employee.getEmail());
+	}
 }
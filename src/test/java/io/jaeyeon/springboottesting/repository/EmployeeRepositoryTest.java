@@ -10,7 +10,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
 
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
 import io.jaeyeon.springboottesting.model.Employee;
 
 /**
@@ -18,6 +21,7 @@ import io.jaeyeon.springboottesting.model.Employee;
  * in-memory embedded database for testing purposes.
  */
 @DataJpaTest
+@ActiveProfiles("test")
 class EmployeeRepositoryTest {
 
 	@Autowired private EmployeeRepository employeeRepository;
@@ -141,4 +145,35 @@ class EmployeeRepositoryTest {
 		// then - verify the output
 		assertThat(savedEmployee).isNotNull();
 	}
+
+	@Test
+	@DisplayName("JUnit test for search by name prefix and email domain")
+	void givenEmployees_whenSearch_thenReturnMatchingViews() throws Exception {
+		// given - precondition or setup
+		Employee employee1 = Employee.builder()
+			.firstName("Brin")
+			.lastName("Sergey")
+			.email("cjyeon1022@Google.com")
+			.build();
+		Employee employee2 = Employee.builder()
+			.firstName("Jaehoon")
+			.lastName("Choi")
+			.email("jaehoon@google.com")
+			.build();
+		employeeRepository.save(employee);
+		employeeRepository.save(employee1);
+		employeeRepository.save(employee2);
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeView> byName = employeeRepository.search(new EmployeeSearchCondition("Jae", "Ch", null), 0L, 10);
+		List<EmployeeView> byDomain = employeeRepository.search(new EmployeeSearchCondition(null, null, "GOOGLE.com"), 0L, 10);
+		List<EmployeeView> wildcard = employeeRepository.search(new EmployeeSearchCondition("%", null, null), 0L, 10);
+
+		// then - verify the output
+		assertThat(byName).extracting(EmployeeView::email)
+			.containsExactly("cjyeon1022@gmail.com", "jaehoon@google.com");
+		assertThat(byDomain).extracting(EmployeeView::email)
+			.containsExactly("cjyeon1022@Google.com", "jaehoon@google.com");
+		assertThat(wildcard).isEmpty();
+	}
 }
@@ -0,0 +1,110 @@
+package io.jaeyeon.springboottesting.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.jaeyeon.springboottesting.model.Employee;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 2차 캐시는 트랜잭션(세션) 경계를 넘어야 의미가 있으므로, 테스트 트랜잭션을 끄고 각 조회를 별도 트랜잭션으로 실행한다.
+ * 커밋된 데이터와 SessionFactory 단위의 통계를 쓰기 때문에 다른 테스트 클래스와 동시에 실행하지 않는다.
+ */
+@Isolated
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeSecondLevelCacheTest {
+
+	@Autowired private EmployeeRepository employeeRepository;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+	private Statistics statistics;
+	private Employee employee;
+
+	@BeforeEach
+	void setup() {
+		transaction = new TransactionTemplate(transactionManager);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		employee = transaction.execute(status -> employeeRepository.save(Employee.builder()
+			.firstName("Jaeyeon")
+			.lastName("Cho")
+			.email("cjyeon1022@gmail.com")
+			.build()));
+
+		entityManagerFactory.getCache().evictAll();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		transaction.executeWithoutResult(status -> employeeRepository.deleteAllInBatch());
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	@DisplayName("JUnit test for find employee by id from second-level cache")
+	void givenCachedEmployee_whenFindByIdInNewTransaction_thenNoSqlIsExecuted() throws Exception {
+		// given - precondition or setup
+		transaction.execute(status -> employeeRepository.findById(employee.getId()));
+
+		// when - action or the behaviour that we are going test
+		Employee cachedEmployee = transaction.execute(status -> employeeRepository.findById(employee.getId()))
+			.orElseThrow();
+
+		// then - verify the output
+		assertThat(cachedEmployee.getEmail()).isEqualTo(employee.getEmail());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(1);
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("JUnit test for find employee by email from query cache")
+	void givenCachedQuery_whenFindByEmailInNewTransaction_thenNoSqlIsExecuted() throws Exception {
+		// given - precondition or setup
+		transaction.execute(status -> employeeRepository.findByEmail(employee.getEmail()));
+
+		// when - action or the behaviour that we are going test
+		Employee cachedEmployee = transaction.execute(status -> employeeRepository.findByEmail(employee.getEmail()))
+			.orElseThrow();
+
+		// then - verify the output
+		assertThat(cachedEmployee.getId()).isEqualTo(employee.getId());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("JUnit test for query cache invalidation after update")
+	void givenCachedQuery_whenEmployeeUpdated_thenQueryIsExecutedAgain() throws Exception {
+		// given - precondition or setup
+		transaction.execute(status -> employeeRepository.findByJPQL("Jaeyeon", "Cho"));
+
+		// when - action or the behaviour that we are going test
+		transaction.execute(status -> employeeRepository.updateById(employee.getId(), "Ram", null, null, null));
+		Employee staleEmployee = transaction.execute(status -> employeeRepository.findByJPQL("Jaeyeon", "Cho"));
+
+		// then - verify the output
+		assertThat(staleEmployee).isNull();
+		assertThat(statistics.getQueryCacheHitCount()).isZero();
+		assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,137 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import io.jaeyeon.springboottesting.dto.EmployeeChangePage;
+import io.jaeyeon.springboottesting.dto.EmployeeChangeView;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.ChangeFeedExpiredException;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeChangeFeedServiceTest {
+
+	private static final Instant NOW = Instant.parse("2024-05-01T00:00:00Z");
+
+	@Mock private EmployeeChangeRepository changeRepository;
+	@Mock private EmployeeRepository employeeRepository;
+	@Mock private EmployeeTableVersionRepository tableVersionRepository;
+	private EmployeeChangeFeedService changeFeedService;
+
+	@BeforeEach
+	void setup() {
+		changeFeedService = new EmployeeChangeFeedService(changeRepository, employeeRepository, tableVersionRepository,
+			EmployeeShardRouter.unsharded());
+	}
+
+	@AfterEach
+	void tearDown() {
+		changeFeedService.close();
+	}
+
+	@Test
+	@DisplayName("JUnit test for getChanges method keeping a sequence within one page")
+	void givenSequenceCutByLimit_whenGetChanges_thenDeferWholeSequence() throws Exception {
+		// given - precondition or setup
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.of(6L));
+		given(changeRepository.findOldestSequence()).willReturn(Optional.of(1L));
+		given(changeRepository.findBetween(eq(3L), eq(6L), any(Pageable.class))).willReturn(List.of(
+			EmployeeChange.of(4L, 1L, EmployeeChange.Type.UPDATED, NOW),
+			EmployeeChange.of(5L, 2L, EmployeeChange.Type.DELETED, NOW),
+			EmployeeChange.of(6L, 3L, EmployeeChange.Type.CREATED, NOW)));
+		EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 1L);
+		given(employeeRepository.findViewsByIdIn(anyCollection())).willReturn(List.of(employee));
+
+		// when - action or the behaviour that we are going test
+		EmployeeChangePage page = changeFeedService.getChanges(3L, 3);
+
+		// then - verify the output
+		// limit 에 걸린 sequence 6 은 다음 페이지에서 통째로 읽는다.
+		assertThat(page.next()).isEqualTo(5L);
+		assertThat(page.changes()).extracting(EmployeeChangeView::sequence).containsExactly(4L, 5L);
+		assertThat(page.changes().get(0).employee()).isEqualTo(employee);
+		assertThat(page.changes().get(1).employee()).isNull();
+	}
+
+	@Test
+	@DisplayName("JUnit test for getChanges method with nothing new")
+	void givenNoNewChanges_whenGetChanges_thenReturnSameCursor() throws Exception {
+		// given - precondition or setup
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.of(6L));
+		given(changeRepository.findOldestSequence()).willReturn(Optional.of(1L));
+		given(changeRepository.findBetween(eq(6L), eq(6L), any(Pageable.class))).willReturn(List.of());
+
+		// when - action or the behaviour that we are going test
+		EmployeeChangePage page = changeFeedService.getChanges(6L, 100);
+
+		// then - verify the output
+		assertThat(page).isEqualTo(EmployeeChangePage.empty(6L));
+		verify(employeeRepository, never()).findViewsByIdIn(anyCollection());
+	}
+
+	@Test
+	@DisplayName("JUnit test for getChanges method with a trimmed cursor")
+	void givenTrimmedSince_whenGetChanges_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.of(20L));
+		given(changeRepository.findOldestSequence()).willReturn(Optional.of(10L));
+
+		// when - action or the behaviour that we are going test
+		// then - verify the output
+		assertThrows(ChangeFeedExpiredException.class, () -> changeFeedService.getChanges(3L, 100));
+		verify(changeRepository, never()).findBetween(anyLong(), anyLong(), any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("JUnit test for getChanges method while a trim is still running on some shards")
+	void givenTrimmedBeforeAboveOldest_whenGetChanges_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		// 다른 샤드는 10 앞까지 지워졌지만 아직 sequence 1 이 남은 샤드가 있다.
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.of(20L));
+		given(tableVersionRepository.findTrimmedBefore()).willReturn(Optional.of(10L));
+		given(changeRepository.findOldestSequence()).willReturn(Optional.of(1L));
+
+		// when - action or the behaviour that we are going test
+		// then - verify the output
+		assertThrows(ChangeFeedExpiredException.class, () -> changeFeedService.getChanges(3L, 100));
+		verify(changeRepository, never()).findBetween(anyLong(), anyLong(), any(Pageable.class));
+	}
+
+	@Test
+	@DisplayName("JUnit test for awaitChangeAfter method woken up by a committed change")
+	void givenWaitingPoll_whenChangeCommitted_thenComplete() throws Exception {
+		// given - precondition or setup
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.of(6L));
+		CompletableFuture<Void> future = changeFeedService.awaitChangeAfter(6L, Duration.ofMinutes(1));
+		assertThat(future).isNotDone();
+
+		// when - action or the behaviour that we are going test
+		changeFeedService.onChange(new EmployeeChangedEvent(7L));
+
+		// then - verify the output
+		future.get(5, TimeUnit.SECONDS);
+		assertThat(future).isCompleted();
+	}
+}
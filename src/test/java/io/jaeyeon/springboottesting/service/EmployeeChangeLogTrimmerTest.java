@@ -0,0 +1,82 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeChangeLogTrimmerTest {
+
+	@Mock private EmployeeChangeRepository changeRepository;
+	@Mock private EmployeeTableVersionRepository tableVersionRepository;
+	private EmployeeChangeLogTrimmer trimmer;
+
+	@BeforeEach
+	void setup() {
+		trimmer = new EmployeeChangeLogTrimmer(changeRepository, tableVersionRepository, EmployeeShardRouter.unsharded(),
+			Duration.ofDays(7), 2);
+	}
+
+	@Test
+	@DisplayName("JUnit test for trim method deleting whole sequences per batch")
+	void givenExpiredSequences_whenTrim_thenDeleteWholeSequencesBeforeBound() throws Exception {
+		// given - precondition or setup
+		// 보존 기간 안의 가장 오래된 sequence 는 7 이다. 1 번째 배치는 3 번째 행(sequence 4) 앞까지,
+		// 2 번째 배치는 sequence 4 하나가 2 건보다 커서 sequence 4 만, 3 번째 배치는 남은 7 앞까지 지운다.
+		given(changeRepository.findOldestSequenceSince(any(Instant.class))).willReturn(Optional.of(7L));
+		given(changeRepository.findSequenceAt(7L, 2))
+			.willReturn(Optional.of(4L), Optional.of(4L), Optional.empty(), Optional.empty());
+		given(changeRepository.findOldestSequence()).willReturn(Optional.of(2L), Optional.of(4L));
+		given(changeRepository.trimBeforeSequence(4L)).willReturn(2);
+		given(changeRepository.trimBeforeSequence(5L)).willReturn(3);
+		given(changeRepository.trimBeforeSequence(7L)).willReturn(1, 0);
+
+		// when - action or the behaviour that we are going test
+		int trimmed = trimmer.trim();
+
+		// then - verify the output
+		assertThat(trimmed).isEqualTo(6);
+		// 변경 피드가 빈 구간을 알 수 있도록 지우기 전에 경계를 먼저 올린다.
+		InOrder inOrder = inOrder(tableVersionRepository, changeRepository);
+		inOrder.verify(tableVersionRepository).raiseTrimmedBefore(4L);
+		inOrder.verify(changeRepository).trimBeforeSequence(4L);
+		inOrder.verify(tableVersionRepository).raiseTrimmedBefore(5L);
+		inOrder.verify(changeRepository).trimBeforeSequence(5L);
+		inOrder.verify(tableVersionRepository).raiseTrimmedBefore(7L);
+		inOrder.verify(changeRepository).trimBeforeSequence(7L);
+		verify(changeRepository, times(2)).trimBeforeSequence(7L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for trim method without changes inside the retention window")
+	void givenOnlyExpiredChanges_whenTrim_thenDeleteUpToLatestSequence() throws Exception {
+		// given - precondition or setup
+		given(changeRepository.findOldestSequenceSince(any(Instant.class))).willReturn(Optional.empty());
+		given(changeRepository.findLatestSequence()).willReturn(Optional.of(9L));
+		given(changeRepository.findSequenceAt(10L, 2)).willReturn(Optional.empty());
+		given(changeRepository.trimBeforeSequence(10L)).willReturn(1, 0);
+
+		// when - action or the behaviour that we are going test
+		int trimmed = trimmer.trim();
+
+		// then - verify the output
+		assertThat(trimmed).isEqualTo(1);
+		verify(changeRepository, times(2)).trimBeforeSequence(10L);
+		verify(tableVersionRepository, times(2)).raiseTrimmedBefore(10L);
+	}
+}
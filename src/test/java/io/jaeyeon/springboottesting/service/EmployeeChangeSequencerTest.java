@@ -0,0 +1,70 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.jaeyeon.springboottesting.model.EmployeeTableVersion;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeChangeSequencerTest {
+
+	@Mock private EmployeeTableVersionRepository tableVersionRepository;
+	@Mock private EmployeeChangeRepository changeRepository;
+	@Mock private ApplicationEventPublisher eventPublisher;
+	@Mock private PlatformTransactionManager transactionManager;
+	private EmployeeChangeSequencer sequencer;
+
+	@BeforeEach
+	void setup() {
+		sequencer = new EmployeeChangeSequencer(tableVersionRepository, changeRepository, eventPublisher,
+			EmployeeShardRouter.unsharded(), transactionManager);
+		// 카운터는 4 까지 올라가 있다.
+		EmployeeTableVersion row = mock(EmployeeTableVersion.class);
+		given(row.getVersion()).willReturn(4L);
+		given(tableVersionRepository.lockRow()).willReturn(Optional.of(row));
+	}
+
+	@Test
+	@DisplayName("JUnit test for sequence method numbering committed changes")
+	void givenUnsequencedChanges_whenSequence_thenAssignNextVersionAndIncrement() throws Exception {
+		// given - precondition or setup
+		given(changeRepository.assignSequence(5L)).willReturn(3);
+
+		// when - action or the behaviour that we are going test
+		long sequence = sequencer.sequence();
+
+		// then - verify the output
+		assertThat(sequence).isEqualTo(5L);
+		verify(tableVersionRepository, times(1)).increment();
+		verify(eventPublisher, times(1)).publishEvent(new EmployeeChangedEvent(5L));
+	}
+
+	@Test
+	@DisplayName("JUnit test for sequence method without pending changes")
+	void givenNoUnsequencedChanges_whenSequence_thenKeepVersion() throws Exception {
+		// given - precondition or setup
+		given(changeRepository.assignSequence(5L)).willReturn(0);
+
+		// when - action or the behaviour that we are going test
+		long sequence = sequencer.sequence();
+
+		// then - verify the output
+		assertThat(sequence).isZero();
+		verify(tableVersionRepository, never()).increment();
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+}
@@ -0,0 +1,161 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeIngestStatus;
+import io.jaeyeon.springboottesting.exception.InvalidEmployeeException;
+import io.jaeyeon.springboottesting.model.Employee;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeIngestServiceTest {
+
+	@Mock private EmployeeService employeeService;
+	@TempDir private Path tempDir;
+	private EmployeeIngestService ingestService;
+
+	private final Employee employee = Employee.builder()
+		.firstName("Jaeyeon")
+		.lastName("Cho")
+		.email("cjyeon1022@gmail.com")
+		.build();
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (ingestService != null) {
+			ingestService.stop();
+		}
+	}
+
+	@Test
+	@DisplayName("JUnit test for submit method saving queued employee in background")
+	void givenEmployee_whenSubmit_thenSavedByWorker() throws Exception {
+		// given - precondition or setup
+		given(employeeService.saveEmployees(any())).willAnswer(invocation -> {
+			Iterator<Employee> employees = invocation.getArgument(0);
+			employees.next();
+			return List.of(EmployeeBatchResult.created(0, 1L));
+		});
+		ingestService = newIngestService();
+
+		// when - action or the behaviour that we are going test
+		String ticket = ingestService.submit(employee);
+
+		// then - verify the output
+		assertThat(awaitState(ticket, EmployeeIngestStatus.State.CREATED).id()).isEqualTo(1L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for submit method rejecting employee without required fields")
+	void givenInvalidEmployee_whenSubmit_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		ingestService = newIngestService();
+
+		// when - action or the behaviour that we are going test
+		assertThrows(InvalidEmployeeException.class, () -> {
+			ingestService.submit(Employee.builder().firstName("Tim").build());
+		});
+
+		// then - verify the output
+		verify(employeeService, never()).saveEmployees(any());
+	}
+
+	@Test
+	@DisplayName("JUnit test for write-ahead log recovering uncommitted employees")
+	void givenUncommittedEntries_whenRecover_thenReturnPendingEntries() throws Exception {
+		// given - precondition or setup
+		Path walPath = tempDir.resolve("employee-ingest.wal");
+		EmployeeWriteAheadLog writeAheadLog = new EmployeeWriteAheadLog(walPath, new ObjectMapper());
+		writeAheadLog.recover();
+		writeAheadLog.append("t1", employee);
+		writeAheadLog.append("t2", Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@google.com").build());
+		writeAheadLog.commit(List.of("t1"));
+		writeAheadLog.close();
+
+		// when - action or the behaviour that we are going test
+		EmployeeWriteAheadLog reopened = new EmployeeWriteAheadLog(walPath, new ObjectMapper());
+		List<EmployeeWriteAheadLog.Entry> entries = reopened.recover();
+		reopened.close();
+
+		// then - verify the output
+		assertThat(entries).extracting(EmployeeWriteAheadLog.Entry::ticket).containsExactly("t2");
+		assertThat(entries.get(0).employee().getEmail()).isEqualTo("cjyeon1022@google.com");
+	}
+
+	@Test
+	@DisplayName("JUnit test for worker retrying queued employee after transient failure")
+	void givenTransientFailure_whenSubmit_thenRetriedUntilSaved() throws Exception {
+		// given - precondition or setup
+		given(employeeService.saveEmployees(any()))
+			.willThrow(new TransientDataAccessResourceException("connection reset"))
+			.willAnswer(invocation -> {
+				Iterator<Employee> employees = invocation.getArgument(0);
+				employees.next();
+				return List.of(EmployeeBatchResult.created(0, 1L));
+			});
+		ingestService = newIngestService();
+
+		// when - action or the behaviour that we are going test
+		String ticket = ingestService.submit(employee);
+
+		// then - verify the output
+		assertThat(awaitState(ticket, EmployeeIngestStatus.State.CREATED).id()).isEqualTo(1L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for worker marking permanently failing employee as failed in write-ahead log")
+	void givenPermanentFailure_whenSubmit_thenMarkedFailedAndNotRecovered() throws Exception {
+		// given - precondition or setup
+		given(employeeService.saveEmployees(any())).willThrow(new IllegalStateException("boom"));
+		ingestService = newIngestService();
+
+		// when - action or the behaviour that we are going test
+		String ticket = ingestService.submit(employee);
+		awaitState(ticket, EmployeeIngestStatus.State.FAILED);
+		ingestService.stop();
+		ingestService = null;
+
+		// then - verify the output
+		EmployeeWriteAheadLog reopened = new EmployeeWriteAheadLog(tempDir.resolve("employee-ingest.wal"), new ObjectMapper());
+		assertThat(reopened.recover()).isEmpty();
+		reopened.close();
+	}
+
+	private EmployeeIngestService newIngestService() {
+		EmployeeIngestService service = new EmployeeIngestService(employeeService, new ObjectMapper(), 10, 10,
+			tempDir.resolve("employee-ingest.wal"), Duration.ofMinutes(1));
+		service.start();
+		return service;
+	}
+
+	private EmployeeIngestStatus awaitState(String ticket, EmployeeIngestStatus.State state) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (System.currentTimeMillis() < deadline) {
+			Optional<EmployeeIngestStatus> status = ingestService.getStatus(ticket);
+			if (status.isPresent() && status.get().state() == state) {
+				return status.get();
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("ticket " + ticket + " did not reach " + state);
+	}
+}
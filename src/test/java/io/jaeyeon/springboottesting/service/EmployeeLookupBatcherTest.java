@@ -0,0 +1,122 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import io.jaeyeon.springboottesting.config.ReadWriteRoutingDataSource;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeLookupBatcherTest {
+
+	@Mock private EmployeeRepository employeeRepository;
+	private EmployeeLookupBatcher lookupBatcher;
+
+	@AfterEach
+	void tearDown() {
+		lookupBatcher.close();
+	}
+
+	@Test
+	@DisplayName("JUnit test for concurrent lookups sharing one IN query")
+	void givenLookupsWithinWindow_whenLookup_thenQueryOnce() throws Exception {
+		// given - precondition or setup
+		lookupBatcher = new EmployeeLookupBatcher(employeeRepository, EmployeeShardRouter.unsharded(), Duration.ofMillis(200), 100);
+		EmployeeView first = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		EmployeeView second = new EmployeeView(2L, "John", "Cena", "cena@gmail.com", 0L);
+		given(employeeRepository.findViewsByIdIn(anyCollection())).willReturn(List.of(first, second));
+
+		// when - action or the behaviour that we are going test
+		CompletableFuture<Optional<EmployeeView>> firstLookup = lookupBatcher.lookup(1L);
+		CompletableFuture<Optional<EmployeeView>> sameIdLookup = lookupBatcher.lookup(1L);
+		CompletableFuture<Optional<EmployeeView>> secondLookup = lookupBatcher.lookup(2L);
+		CompletableFuture<Optional<EmployeeView>> missingLookup = lookupBatcher.lookup(3L);
+
+		// then - verify the output
+		assertThat(sameIdLookup).isSameAs(firstLookup);
+		assertThat(firstLookup.join()).contains(first);
+		assertThat(secondLookup.join()).contains(second);
+		assertThat(missingLookup.join()).isEmpty();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+		verify(employeeRepository, times(1)).findViewsByIdIn(ids.capture());
+		assertThat(ids.getValue()).containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for lookups read on the replica pinned by their request")
+	void givenPinnedAndUnpinnedLookups_whenLookup_thenQueryPerReadTarget() throws Exception {
+		// given - precondition or setup
+		lookupBatcher = new EmployeeLookupBatcher(employeeRepository, EmployeeShardRouter.unsharded(), Duration.ofMillis(200), 100);
+		Map<Collection<Long>, Object> readTargets = new ConcurrentHashMap<>();
+		given(employeeRepository.findViewsByIdIn(anyCollection())).willAnswer(invocation -> {
+			ReadWriteRoutingDataSource.PinScope pin = ReadWriteRoutingDataSource.currentPin();
+			readTargets.put(List.copyOf(invocation.<Collection<Long>>getArgument(0)),
+				pin == null || pin.target() == null ? "none" : pin.target());
+			return List.of();
+		});
+
+		// when - action or the behaviour that we are going test
+		// 요청이 이미 복제본 0 에서 읽은 상태로 조회한다.
+		CompletableFuture<Optional<EmployeeView>> pinnedLookup = ReadWriteRoutingDataSource.callWithin(
+			ReadWriteRoutingDataSource.PinScope.pinnedTo(0), () -> lookupBatcher.lookup(1L));
+		CompletableFuture<Optional<EmployeeView>> unpinnedLookup = lookupBatcher.lookup(2L);
+
+		// then - verify the output
+		assertThat(pinnedLookup.get(5, TimeUnit.SECONDS)).isEmpty();
+		assertThat(unpinnedLookup.get(5, TimeUnit.SECONDS)).isEmpty();
+		assertThat(readTargets).containsOnly(entry(List.of(1L), 0), entry(List.of(2L), "none"));
+	}
+
+	@Test
+	@DisplayName("JUnit test for batch flushed when max batch size is reached")
+	void givenFullBatch_whenLookup_thenQueryWithoutWaitingForWindow() throws Exception {
+		// given - precondition or setup
+		lookupBatcher = new EmployeeLookupBatcher(employeeRepository, EmployeeShardRouter.unsharded(), Duration.ofHours(1), 2);
+		given(employeeRepository.findViewsByIdIn(List.of(1L, 2L))).willReturn(List.of());
+
+		// when - action or the behaviour that we are going test
+		CompletableFuture<Optional<EmployeeView>> firstLookup = lookupBatcher.lookup(1L);
+		CompletableFuture<Optional<EmployeeView>> secondLookup = lookupBatcher.lookup(2L);
+
+		// then - verify the output
+		assertThat(firstLookup.get(5, TimeUnit.SECONDS)).isEmpty();
+		assertThat(secondLookup.get(5, TimeUnit.SECONDS)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("JUnit test for query failure propagated to every waiting lookup")
+	void givenQueryFailure_whenFind_thenThrowsCause() throws Exception {
+		// given - precondition or setup
+		lookupBatcher = new EmployeeLookupBatcher(employeeRepository, EmployeeShardRouter.unsharded(), Duration.ZERO, 100);
+		given(employeeRepository.findViewsByIdIn(List.of(1L)))
+			.willThrow(new DataAccessResourceFailureException("connection refused"));
+
+		// when - action or the behaviour that we are going test
+		Throwable thrown = catchThrowable(() -> lookupBatcher.find(1L));
+
+		// then - verify the output
+		assertThat(thrown).isInstanceOf(DataAccessResourceFailureException.class);
+	}
+}
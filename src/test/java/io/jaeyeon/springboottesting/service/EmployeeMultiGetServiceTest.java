@@ -0,0 +1,109 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import io.jaeyeon.springboottesting.dto.EmployeeMultiGetResult;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeMultiGetServiceTest {
+
+	@Mock private EmployeeRepository employeeRepository;
+	private EmployeeMultiGetService multiGetService;
+
+	@BeforeEach
+	void setup() {
+		multiGetService = new EmployeeMultiGetService(employeeRepository, EmployeeShardRouter.unsharded(), 100, 2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		multiGetService.close();
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees method split into IN-list chunks")
+	void givenIdsOverChunkSize_whenGetEmployees_thenQueryPerChunkAndKeepRequestOrder() throws Exception {
+		// given - precondition or setup
+		EmployeeView first = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		EmployeeView third = new EmployeeView(3L, "John", "Cena", "cena@gmail.com", 0L);
+		EmployeeView fifth = new EmployeeView(5L, "Tony", "Stark", "tony@gmail.com", 0L);
+		given(employeeRepository.findViewsByIdIn(List.of(5L, 4L))).willReturn(List.of(fifth));
+		given(employeeRepository.findViewsByIdIn(List.of(3L, 1L))).willReturn(List.of(first, third));
+
+		// when - action or the behaviour that we are going test
+		EmployeeMultiGetResult result = multiGetService.getEmployees(List.of(5L, 4L, 3L, 5L, 1L));
+
+		// then - verify the output
+		assertThat(result.employees()).containsExactly(fifth, third, first);
+		assertThat(result.missing()).containsExactly(4L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees method within one chunk")
+	void givenIdsWithinChunkSize_whenGetEmployees_thenQueryOnce() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsByIdIn(List.of(1L, 2L))).willReturn(List.of());
+
+		// when - action or the behaviour that we are going test
+		EmployeeMultiGetResult result = multiGetService.getEmployees(List.of(1L, 2L));
+
+		// then - verify the output
+		assertThat(result.employees()).isEmpty();
+		assertThat(result.missing()).containsExactly(1L, 2L);
+		verify(employeeRepository, times(1)).findViewsByIdIn(anyCollection());
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees method running at most parallelism chunks at once")
+	void givenManyChunks_whenGetEmployees_thenInFlightChunksBoundedByParallelism() throws Exception {
+		// given - precondition or setup
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		given(employeeRepository.findViewsByIdIn(anyCollection())).willAnswer(invocation -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			Thread.sleep(20);
+			running.decrementAndGet();
+			return List.of();
+		});
+		List<Long> ids = LongStream.rangeClosed(1, 20).boxed().toList();
+
+		// when - action or the behaviour that we are going test
+		EmployeeMultiGetResult result = multiGetService.getEmployees(ids);
+
+		// then - verify the output
+		assertThat(result.missing()).hasSize(20);
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+		verify(employeeRepository, times(10)).findViewsByIdIn(anyCollection());
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees method when a chunk query fails")
+	void givenChunkFailure_whenGetEmployees_thenThrowsCause() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsByIdIn(anyCollection()))
+			.willThrow(new DataAccessResourceFailureException("connection refused"));
+
+		// when - action or the behaviour that we are going test
+		Throwable thrown = catchThrowable(() -> multiGetService.getEmployees(List.of(1L, 2L, 3L)));
+
+		// then - verify the output
+		assertThat(thrown).isInstanceOf(DataAccessResourceFailureException.class);
+	}
+}
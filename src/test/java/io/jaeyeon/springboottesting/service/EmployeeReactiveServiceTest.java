@@ -0,0 +1,135 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.mockito.BDDMockito.*;
+
+import java.sql.SQLException;
+import java.time.Instant;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.jaeyeon.springboottesting.config.CacheConfig;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeReactiveRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeReactiveServiceTest {
+
+	@Mock private EmployeeReactiveRepository employeeReactiveRepository;
+	@Mock private TransactionalOperator transactionalOperator;
+	@Mock private CacheConfig cacheConfig;
+	@Mock private EmployeeChangeSequencer changeSequencer;
+	@Mock private Cache employeesCache;
+	@Mock private Cache employeesByEmailCache;
+	private EmployeeReactiveService employeeReactiveService;
+	private Employee employee;
+
+	@BeforeEach
+	void setup() {
+		employeeReactiveService = new EmployeeReactiveService(employeeReactiveRepository, transactionalOperator,
+			cacheConfig, changeSequencer, false);
+		// 트랜잭션 경계는 R2dbcTransactionManager 가 맡으므로 여기서는 그대로 통과시킨다.
+		lenient().when(transactionalOperator.transactional(any(Mono.class)))
+			.thenAnswer(invocation -> invocation.getArgument(0));
+		lenient().when(cacheConfig.getCache(CacheConfig.EMPLOYEES)).thenReturn(employeesCache);
+		lenient().when(cacheConfig.getCache(CacheConfig.EMPLOYEES_BY_EMAIL)).thenReturn(employeesByEmailCache);
+		employee = Employee.builder()
+			.firstName("Jaeyeon")
+			.lastName("Cho")
+			.email("jaeyeon@gmail.com")
+			.build();
+	}
+
+	@DisplayName("JUnit test for saveEmployee method recording the change and evicting after commit")
+	@Test
+	void givenEmployeeObject_whenSaveEmployee_thenRecordChangeAndEvict() {
+		// given - precondition or setup
+		Employee saved = Employee.builder().id(7L).firstName("Jaeyeon").lastName("Cho").email("jaeyeon@gmail.com").build();
+		given(employeeReactiveRepository.insert(employee)).willReturn(Mono.just(saved));
+		given(employeeReactiveRepository.insertChange(eq(7L), eq(EmployeeChange.Type.CREATED), any(Instant.class)))
+			.willReturn(Mono.empty());
+
+		// when - action or the behaviour that we are going test
+		Mono<Employee> result = employeeReactiveService.saveEmployee(employee);
+
+		// then - verify the output
+		StepVerifier.create(result).expectNext(saved).verifyComplete();
+		then(employeesCache).should().evict(7L);
+		then(employeesByEmailCache).should().clear();
+		then(changeSequencer).should().sequenceAsync();
+	}
+
+	@DisplayName("JUnit test for saveEmployee method which throws exception on duplicate email")
+	@Test
+	void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
+		// given - precondition or setup
+		given(employeeReactiveRepository.insert(employee)).willReturn(Mono.error(new DataIntegrityViolationException(
+			"duplicate", new ConstraintViolationException("duplicate", new SQLException(), "uk_employees_email"))));
+
+		// when - action or the behaviour that we are going test
+		Mono<Employee> result = employeeReactiveService.saveEmployee(employee);
+
+		// then - verify the output
+		StepVerifier.create(result).expectError(DuplicateEmailException.class).verify();
+		then(changeSequencer).should(never()).sequenceAsync();
+	}
+
+	@DisplayName("JUnit test for updateEmployee method with stale version")
+	@Test
+	void givenStaleVersion_whenUpdateEmployee_thenThrowsOptimisticLockingFailure() {
+		// given - precondition or setup
+		given(employeeReactiveRepository.update(1L, employee, 3L)).willReturn(Mono.just(0L));
+		given(employeeReactiveRepository.existsById(1L)).willReturn(Mono.just(true));
+
+		// when - action or the behaviour that we are going test
+		Mono<Void> result = employeeReactiveService.updateEmployee(1L, employee, 3L);
+
+		// then - verify the output
+		StepVerifier.create(result).expectError(OptimisticLockingFailureException.class).verify();
+		then(employeeReactiveRepository).should(never()).insertChange(anyLong(), any(), any());
+	}
+
+	@DisplayName("JUnit test for updateEmployee method with missing employee")
+	@Test
+	void givenMissingEmployee_whenUpdateEmployee_thenThrowsResourceNotFound() {
+		// given - precondition or setup
+		given(employeeReactiveRepository.update(1L, employee, null)).willReturn(Mono.just(0L));
+
+		// when - action or the behaviour that we are going test
+		Mono<Void> result = employeeReactiveService.updateEmployee(1L, employee, null);
+
+		// then - verify the output
+		StepVerifier.create(result).expectError(ResourceNotFoundException.class).verify();
+	}
+
+	@DisplayName("JUnit test for deleteEmployee method recording the change")
+	@Test
+	void givenEmployeeId_whenDeleteEmployee_thenRecordChangeAndEvict() {
+		// given - precondition or setup
+		given(employeeReactiveRepository.delete(eq(1L), eq(false), any(Instant.class))).willReturn(Mono.just(1L));
+		given(employeeReactiveRepository.insertChange(eq(1L), eq(EmployeeChange.Type.DELETED), any(Instant.class)))
+			.willReturn(Mono.empty());
+
+		// when - action or the behaviour that we are going test
+		Mono<Void> result = employeeReactiveService.deleteEmployee(1L);
+
+		// then - verify the output
+		StepVerifier.create(result).verifyComplete();
+		then(employeesCache).should().evict(1L);
+		then(changeSequencer).should().sequenceAsync();
+	}
+}
@@ -0,0 +1,117 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.jaeyeon.springboottesting.config.CacheConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * 캐시 프록시가 적용된 EmployeeService 를 대상으로 조회 캐시와 무효화 동작을 검증한다.
+ */
+@SpringJUnitConfig
+class EmployeeServiceCacheTest {
+
+	@Configuration
+	@Import({CacheConfig.class, EmployeeService.class})
+	static class TestConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new CaffeineCacheManager(CacheConfig.EMPLOYEES, CacheConfig.EMPLOYEES_BY_EMAIL);
+		}
+
+		@Bean
+		EmployeeShardRouter employeeShardRouter() {
+			return EmployeeShardRouter.unsharded();
+		}
+
+		@Bean
+		EmployeeLookupBatcher employeeLookupBatcher(EmployeeRepository employeeRepository, EmployeeShardRouter shardRouter) {
+			return new EmployeeLookupBatcher(employeeRepository, shardRouter, Duration.ZERO, 100);
+		}
+	}
+
+	@Autowired private EmployeeService employeeService;
+	@Autowired private CacheManager cacheManager;
+	@MockBean private EmployeeRepository employeeRepository;
+	@MockBean private EmployeeTableVersionRepository tableVersionRepository;
+	@MockBean private EmployeeChangeRepository changeRepository;
+	@MockBean private PlatformTransactionManager transactionManager;
+	@MockBean private EntityManager entityManager;
+	@MockBean private EmployeeEmailIndex emailIndex;
+
+	private EmployeeView employee;
+
+	@BeforeEach
+	void setup() {
+		employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployeeById method served from cache")
+	void givenCachedEmployee_whenGetEmployeeById_thenQueryOnce() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsByIdIn(List.of(1L))).willReturn(List.of(employee));
+
+		// when - action or the behaviour that we are going test
+		employeeService.getEmployeeById(1L);
+		Optional<EmployeeView> cachedEmployee = employeeService.getEmployeeById(1L);
+
+		// then - verify the output
+		assertThat(cachedEmployee).contains(employee);
+		verify(employeeRepository, times(1)).findViewsByIdIn(List.of(1L));
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployeeById method does not cache missing employee")
+	void givenMissingEmployee_whenGetEmployeeById_thenQueryEveryTime() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsByIdIn(List.of(2L))).willReturn(List.of());
+
+		// when - action or the behaviour that we are going test
+		employeeService.getEmployeeById(2L);
+		employeeService.getEmployeeById(2L);
+
+		// then - verify the output
+		verify(employeeRepository, times(2)).findViewsByIdIn(List.of(2L));
+	}
+
+	@Test
+	@DisplayName("JUnit test for deleteEmployee method evicts cached employee")
+	void givenCachedEmployee_whenDeleteEmployee_thenEvict() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsByIdIn(List.of(1L))).willReturn(List.of(employee));
+		employeeService.getEmployeeById(1L);
+
+		// when - action or the behaviour that we are going test
+		employeeService.deleteEmployee(1L);
+		employeeService.getEmployeeById(1L);
+
+		// then - verify the output
+		verify(employeeRepository, times(2)).findViewsByIdIn(List.of(1L));
+	}
+}
@@ -0,0 +1,244 @@
+package io.jaeyeon.springboottesting.service;
+
+import static io.jaeyeon.springboottesting.model.EmployeeIdGenerator.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.jaeyeon.springboottesting.config.ShardContext;
+import io.jaeyeon.springboottesting.config.ShardRoutingDataSource;
+import io.jaeyeon.springboottesting.config.ShardingConfig;
+import io.jaeyeon.springboottesting.dto.EmployeeChangePage;
+import io.jaeyeon.springboottesting.dto.EmployeeChangeView;
+import io.jaeyeon.springboottesting.dto.EmployeeMultiGetResult;
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
+import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.model.EmployeeShardPlacement;
+import io.jaeyeon.springboottesting.repository.EmployeeShardMap;
+import io.jaeyeon.springboottesting.repository.EmployeeShardPlacementRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 두 개의 H2 인스턴스를 샤드 0 / 1 로 쓰고, 홀수 논리 샤드를 샤드 1 에 배치해 EmployeeService 가
+ * 직원을 email 의 샤드에 저장하고 목록 / 검색 / 다건 조회 / 변경 피드를 모든 샤드에서 모으는지 검증한다.
+ * 샤드마다 자기 트랜잭션을 열어야 하므로 테스트 트랜잭션은 끈다.
+ */
+@DataJpaTest(properties =
+	"employee.sharding.shards[0].url=jdbc:h2:mem:ems-shard1-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ShardingConfig.class, EmployeeShardRouter.class, EmployeeService.class, EmployeeEmailIndex.class,
+	EmployeeLookupBatcher.class, EmployeeMultiGetService.class, EmployeeChangeFeedService.class,
+	EmployeeChangeSequencer.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeServiceShardingTest {
+
+	@Autowired private EmployeeService employeeService;
+	@Autowired private EmployeeMultiGetService multiGetService;
+	@Autowired private EmployeeChangeFeedService changeFeedService;
+	@Autowired private EmployeeShardMap shardMap;
+	@Autowired private EmployeeShardPlacementRepository placementRepository;
+	@Autowired private EmployeeTableVersionRepository tableVersionRepository;
+	@Autowired private ShardRoutingDataSource dataSource;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+
+	private Employee evenShardEmployee;
+	private Employee oddShardEmployee;
+
+	@BeforeEach
+	void setup() {
+		// ddl-auto 는 샤드 0 에만 적용되므로 샤드 1 의 스키마는 직접 만든다.
+		ShardContext.callOn(1, () -> {
+			entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(false);
+			return null;
+		});
+		placementRepository.saveAll(IntStream.range(0, LOGICAL_SHARDS)
+			.filter(shard -> shard % 2 == 1)
+			.mapToObj(shard -> EmployeeShardPlacement.of(shard, 1))
+			.toList());
+		shardMap.refresh();
+		tableVersionRepository.insertIfAbsent();
+
+		evenShardEmployee = employee("Jaeyeon", "Cho", emailOnLogicalShardParity(0));
+		oddShardEmployee = employee("John", "Cena", emailOnLogicalShardParity(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		ShardContext.callOn(1, () -> {
+			entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().dropMappedObjects(false);
+			return null;
+		});
+		entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().truncateMappedObjects();
+		entityManagerFactory.getCache().evictAll();
+		shardMap.refresh();
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployee storing the employee on the shard of its email")
+	void givenEmployees_whenSaveEmployee_thenStoredOnShardOfEmail() throws Exception {
+		// when - action or the behaviour that we are going test
+		Employee savedEven = employeeService.saveEmployee(evenShardEmployee);
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+
+		// then - verify the output
+		assertThat(logicalShardOf(savedEven.getId())).isEqualTo(logicalShardOf(savedEven.getEmail()));
+		assertThat(logicalShardOf(savedOdd.getId())).isEqualTo(logicalShardOf(savedOdd.getEmail()));
+		assertThat(countOn(0, "employees")).isEqualTo(1);
+		assertThat(countOn(1, "employees")).isEqualTo(1);
+		// 변경 로그도 직원 행과 같은 샤드에 남는다.
+		assertThat(countOn(0, "employee_changes")).isEqualTo(1);
+		assertThat(countOn(1, "employee_changes")).isEqualTo(1);
+		assertThat(employeeService.getEmployeeById(savedOdd.getId())).map(EmployeeView::email)
+			.contains(savedOdd.getEmail());
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees, searchEmployees and multi-get gathered from every shard")
+	void givenEmployeesOnBothShards_whenListSearchOrMultiGet_thenGatherFromEveryShard() throws Exception {
+		// given - precondition or setup
+		Employee savedEven = employeeService.saveEmployee(evenShardEmployee);
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+		List<Long> sortedIds = List.of(savedEven.getId(), savedOdd.getId()).stream().sorted().toList();
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeView> employees = employeeService.getEmployees(null, 10);
+		List<EmployeeView> firstPage = employeeService.getEmployees(null, 1);
+		List<EmployeeView> found = employeeService.searchEmployees(new EmployeeSearchCondition(null, "Cena", null), null, 10);
+		EmployeeMultiGetResult multiGet = multiGetService.getEmployees(List.of(savedOdd.getId(), savedEven.getId()));
+
+		// then - verify the output
+		assertThat(employees).extracting(EmployeeView::id).containsExactlyElementsOf(sortedIds);
+		assertThat(firstPage).extracting(EmployeeView::id).containsExactly(sortedIds.get(0));
+		assertThat(found).extracting(EmployeeView::id).containsExactly(savedOdd.getId());
+		assertThat(multiGet.employees()).extracting(EmployeeView::id).containsExactly(savedOdd.getId(), savedEven.getId());
+		assertThat(multiGet.missing()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("JUnit test for updateEmployee on the shard of the employee id")
+	void givenEmployeeOnSecondShard_whenUpdateEmployee_thenUpdateThatShard() throws Exception {
+		// given - precondition or setup
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+
+		// when - action or the behaviour that we are going test
+		employeeService.updateEmployee(savedOdd.getId(), employee("Brin", "Sergey", savedOdd.getEmail()), null);
+
+		// then - verify the output
+		assertThat(employeeService.getEmployeeById(savedOdd.getId())).map(EmployeeView::firstName).contains("Brin");
+		assertThat(countOn(1, "employee_changes")).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("JUnit test for deleteEmployees by condition and the change feed across shards")
+	void givenEmployeesOnBothShards_whenDeleteByCondition_thenDeleteEverywhereAndFeedAllChanges() throws Exception {
+		// given - precondition or setup
+		Employee savedEven = employeeService.saveEmployee(evenShardEmployee);
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+
+		// when - action or the behaviour that we are going test
+		int deleted = employeeService.deleteEmployees(new EmployeeSearchCondition(null, null, "gmail.com"));
+		EmployeeChangePage page = changeFeedService.getChanges(0L, 100);
+
+		// then - verify the output
+		assertThat(deleted).isEqualTo(2);
+		assertThat(countOn(0, "employees") + countOn(1, "employees")).isZero();
+		assertThat(page.changes()).extracting(EmployeeChangeView::employeeId, EmployeeChangeView::type)
+			.containsExactlyInAnyOrder(
+				tuple(savedEven.getId(), EmployeeChange.Type.CREATED),
+				tuple(savedOdd.getId(), EmployeeChange.Type.CREATED),
+				tuple(savedEven.getId(), EmployeeChange.Type.DELETED),
+				tuple(savedOdd.getId(), EmployeeChange.Type.DELETED));
+		assertThat(page.changes()).extracting(EmployeeChangeView::sequence).isSorted();
+		assertThat(page.next()).isEqualTo(tableVersionRepository.findCurrentVersion().orElseThrow());
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployee with an email taken by an employee on another shard")
+	void givenEmailMovedToOtherShard_whenSaveEmployee_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		// 샤드 1 의 직원이 홈 샤드가 0 인 email 로 바꾸면 그 직원은 샤드 1 에 남는다.
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+		employeeService.updateEmployee(savedOdd.getId(), employee("John", "Cena", evenShardEmployee.getEmail()), null);
+
+		// when - action or the behaviour that we are going test
+		// then - verify the output
+		assertThrows(DuplicateEmailException.class, () -> employeeService.saveEmployee(evenShardEmployee));
+		assertThat(countOn(0, "employees")).isZero();
+		// 이전 email 은 놓아주었으므로 다시 쓸 수 있다.
+		Employee reused = employeeService.saveEmployee(employee("Brin", "Sergey", oddShardEmployee.getEmail()));
+		assertThat(reused.getId()).isNotEqualTo(savedOdd.getId());
+	}
+
+	@Test
+	@DisplayName("JUnit test for updateEmployee to an email taken by an employee on another shard")
+	void givenEmailOnOtherShard_whenUpdateEmployee_thenThrowsExceptionAndKeepEmail() throws Exception {
+		// given - precondition or setup
+		Employee savedEven = employeeService.saveEmployee(evenShardEmployee);
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+
+		// when - action or the behaviour that we are going test
+		// then - verify the output
+		assertThrows(DuplicateEmailException.class, () -> employeeService.updateEmployee(savedOdd.getId(),
+			employee("John", "Cena", savedEven.getEmail().toUpperCase(Locale.ROOT)), null));
+		assertThat(employeeService.getEmployeeById(savedOdd.getId())).map(EmployeeView::email)
+			.contains(savedOdd.getEmail());
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployee with the email of a deleted employee")
+	void givenDeletedEmployee_whenSaveEmployeeWithSameEmail_thenTakeOverClaim() throws Exception {
+		// given - precondition or setup
+		Employee savedOdd = employeeService.saveEmployee(oddShardEmployee);
+		employeeService.deleteEmployee(savedOdd.getId());
+
+		// when - action or the behaviour that we are going test
+		Employee saved = employeeService.saveEmployee(employee("John", "Cena", savedOdd.getEmail()));
+
+		// then - verify the output
+		assertThat(saved.getId()).isNotEqualTo(savedOdd.getId());
+		assertThat(countOn(1, "employee_email_claims")).isEqualTo(1);
+	}
+
+	private long countOn(int physicalShard, String table) {
+		return new JdbcTemplate(dataSource.getShard(physicalShard)).queryForObject("select count(*) from " + table, Long.class);
+	}
+
+	private static Employee employee(String firstName, String lastName, String email) {
+		return Employee.builder()
+			.firstName(firstName)
+			.lastName(lastName)
+			.email(email)
+			.build();
+	}
+
+	private static String emailOnLogicalShardParity(int parity) {
+		return IntStream.iterate(0, i -> i + 1)
+			.mapToObj(i -> "user" + i + "@gmail.com")
+			.filter(email -> logicalShardOf(email) % 2 == parity)
+			.findFirst()
+			.orElseThrow();
+	}
+}
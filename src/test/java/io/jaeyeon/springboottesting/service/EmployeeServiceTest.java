@@ -4,32 +4,63 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.jaeyeon.springboottesting.dto.EmployeeBatchResult;
+import io.jaeyeon.springboottesting.dto.EmployeeSearchCondition;
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+import io.jaeyeon.springboottesting.exception.DuplicateEmailException;
 import io.jaeyeon.springboottesting.exception.ResourceNotFoundException;
 import io.jaeyeon.springboottesting.model.Employee;
+import io.jaeyeon.springboottesting.model.EmployeeChange;
+import io.jaeyeon.springboottesting.repository.EmployeeChangeRepository;
 import io.jaeyeon.springboottesting.repository.EmployeeRepository;
+import io.jaeyeon.springboottesting.repository.EmployeeShardRouter;
+import io.jaeyeon.springboottesting.repository.EmployeeTableVersionRepository;
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTest {
 
 	@Mock private EmployeeRepository employeeRepository;
+	@Mock private EmployeeTableVersionRepository tableVersionRepository;
+	@Mock private EmployeeChangeRepository changeRepository;
+	@Mock private ApplicationEventPublisher eventPublisher;
+	@Mock private EmployeeLookupBatcher lookupBatcher;
+	@Spy private EmployeeShardRouter shardRouter = EmployeeShardRouter.unsharded();
+	@Mock private EmployeeEmailIndex emailIndex;
+	@Mock private PlatformTransactionManager transactionManager;
+	@Mock private EntityManager entityManager;
 	@InjectMocks private EmployeeService employeeService;
 	private Employee employee;
 
 	@BeforeEach
 	void setup() {
 		employee = Employee.builder()
+			.id(1L)
 			.firstName("Jaeyeon")
 			.lastName("Cho")
 			.email("cjyeon1022@gmail.com")
@@ -40,8 +71,7 @@ class EmployeeServiceTest {
 	@DisplayName("JUint test for saveEmployee method")
 	void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() throws Exception {
 	    // given - precondition or setup
-		given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-		given(employeeRepository.save(employee)).willReturn(employee);
+		given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
 		System.out.println(employeeRepository);
 		System.out.println(employeeService);
@@ -58,18 +88,99 @@ class EmployeeServiceTest {
 	@DisplayName("JUint test for saveEmployee method which throws exception")
 	void givenExistingEmail_whenSaveEmployee_thenThrowsException() throws Exception {
 		// given - precondition or setup
-		given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+		// 유니크 제약 위반은 DataIntegrityViolationException 으로 번역되어 올라온다.
+		given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+			new ConstraintViolationException("duplicate", new SQLException(), "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT)));
 
 		System.out.println(employeeRepository);
 
 		// when - action or the behaviour that we are going test
-		assertThrows(ResourceNotFoundException.class, () -> {
+		assertThrows(DuplicateEmailException.class, () -> {
 			employeeService.saveEmployee(employee);
 		});
 		System.out.println(employeeService);
 
 		// then - verify the output
-		verify(employeeRepository, never()).save(any(Employee.class));
+		verify(employeeRepository, never()).findByEmail(any());
+	}
+
+	@Test
+	@DisplayName("JUint test for saveEmployee method which rethrows other integrity violations")
+	void givenOtherConstraintViolation_whenSaveEmployee_thenRethrows() throws Exception {
+		// given - precondition or setup
+		DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+			new ConstraintViolationException("not null", new SQLException(), null));
+		given(employeeRepository.saveAndFlush(employee)).willThrow(violation);
+
+		// when - action or the behaviour that we are going test
+		DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class, () -> {
+			employeeService.saveEmployee(employee);
+		});
+
+		// then - verify the output
+		assertThat(thrown).isSameAs(violation);
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployees method (batch insert)")
+	void givenEmployeesWithDuplicateAndInvalidRows_whenSaveEmployees_thenReportPerRowResult() throws Exception {
+		// given - precondition or setup
+		ReflectionTestUtils.setField(employeeService, "batchSize", 2);
+		Employee existing = Employee.builder().firstName("Brin").lastName("Sergey").email("cjyeon1022@google.com").build();
+		Employee invalid = Employee.builder().firstName("Tim").lastName("Cook").build();
+		Employee sameEmail = Employee.builder().firstName("Jae").lastName("Cho").email(employee.getEmail()).build();
+
+		given(employeeRepository.findEmailsIn(anyCollection())).willAnswer(invocation -> {
+			List<String> emails = new ArrayList<>(invocation.getArgument(0));
+			emails.retainAll(List.of(existing.getEmail()));
+			return emails;
+		});
+		given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+			List<Employee> employees = invocation.getArgument(0);
+			return employees.stream()
+				.map(e -> Employee.builder().id(1L).firstName(e.getFirstName()).lastName(e.getLastName()).email(e.getEmail()).build())
+				.toList();
+		});
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeBatchResult> results = employeeService.saveEmployees(
+			List.of(employee, existing, invalid, sameEmail).iterator());
+
+		// then - verify the output
+		assertThat(results).extracting(EmployeeBatchResult::status).containsExactly(
+			EmployeeBatchResult.Status.CREATED,
+			EmployeeBatchResult.Status.DUPLICATE,
+			EmployeeBatchResult.Status.INVALID,
+			EmployeeBatchResult.Status.DUPLICATE);
+		assertThat(results).extracting(EmployeeBatchResult::index).containsExactly(0, 1, 2, 3);
+		assertThat(results.get(0).id()).isEqualTo(1L);
+		verify(employeeRepository, times(2)).findEmailsIn(anyCollection());
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployees method retrying a chunk row by row after a constraint violation")
+	void givenDuplicateFoundAtFlush_whenSaveEmployees_thenRetryRowByRow() throws Exception {
+		// given - precondition or setup
+		// 사전 확인 뒤에 다른 요청이 같은 이메일(대소문자만 다른 경우 포함)을 먼저 등록한 상황
+		Employee other = Employee.builder().firstName("Brin").lastName("Sergey").email("brin@google.com").build();
+		willThrow(duplicateEmailViolation()).given(employeeRepository).flush();
+		given(employeeRepository.saveAndFlush(any(Employee.class))).willAnswer(invocation -> {
+			Employee row = invocation.getArgument(0);
+			if (row.getEmail().equals(employee.getEmail())) {
+				throw duplicateEmailViolation();
+			}
+			return Employee.builder().id(2L).firstName(row.getFirstName()).lastName(row.getLastName()).email(row.getEmail()).build();
+		});
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, other).iterator());
+
+		// then - verify the output
+		assertThat(results).extracting(EmployeeBatchResult::status).containsExactly(
+			EmployeeBatchResult.Status.DUPLICATE,
+			EmployeeBatchResult.Status.CREATED);
+		assertThat(results.get(1).id()).isEqualTo(2L);
 	}
 
 	@Test
@@ -114,65 +225,128 @@ class EmployeeServiceTest {
 		assertThat(employeeList.size()).isEqualTo(0);
 	}
 
+	@Test
+	@DisplayName("JUnit test for getEmployees method (keyset pagination)")
+	void givenCursor_whenGetEmployees_thenQueryRowsAfterCursor() throws Exception {
+		// given - precondition or setup
+		EmployeeView view = new EmployeeView(11L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		given(employeeRepository.findViewsAfter(10L, PageRequest.ofSize(2)))
+			.willReturn(List.of(view));
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeView> employeeList = employeeService.getEmployees(10L, 2);
+
+		// then - verify the output
+		assertThat(employeeList).containsExactly(view);
+		verify(employeeRepository, never()).findAll();
+	}
+
+	@Test
+	@DisplayName("JUnit test for getEmployees method without cursor")
+	void givenNoCursor_whenGetEmployees_thenQueryFromFirstRow() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.findViewsAfter(0L, PageRequest.ofSize(100)))
+			.willReturn(Collections.emptyList());
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeView> employeeList = employeeService.getEmployees(null, 100);
+
+		// then - verify the output
+		assertThat(employeeList).isEmpty();
+	}
+
+	@Test
+	@DisplayName("JUnit test for searchEmployees method")
+	void givenCondition_whenSearchEmployees_thenDelegateToRepository() throws Exception {
+		// given - precondition or setup
+		EmployeeSearchCondition condition = new EmployeeSearchCondition(null, "Ch", "gmail.com");
+		EmployeeView view = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+		given(employeeRepository.search(condition, 0L, 20)).willReturn(List.of(view));
+
+		// when - action or the behaviour that we are going test
+		List<EmployeeView> employeeList = employeeService.searchEmployees(condition, null, 20);
+
+		// then - verify the output
+		assertThat(employeeList).containsExactly(view);
+	}
+
+	@Test
+	@DisplayName("JUnit test for getTableVersion method before any write")
+	void givenNoTableVersionRow_whenGetTableVersion_thenReturnZero() throws Exception {
+		// given - precondition or setup
+		given(tableVersionRepository.findCurrentVersion()).willReturn(Optional.empty());
+
+		// when - action or the behaviour that we are going test
+		long tableVersion = employeeService.getTableVersion();
+
+		// then - verify the output
+		assertThat(tableVersion).isZero();
+	}
+
 	@Test
 	@DisplayName("JUnit test for getEmployeeById method")
 	void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
 		// given - precondition or setup
-		given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+		EmployeeView view = new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(),
+			employee.getEmail(), 0L);
+		given(lookupBatcher.find(employee.getId())).willReturn(Optional.of(view));
 
 		// when - action or the behaviour that we are going test
-		Employee savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
+		EmployeeView savedEmployee = employeeService.getEmployeeById(employee.getId()).get();
 
 		// then - verify the output
 		assertThat(savedEmployee).isNotNull();
+		verify(employeeRepository, never()).findById(any());
 	}
 
 	@Test
 	@DisplayName("JUnit test for updateEmployee method")
-	void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() throws Exception {
-		// given - precondition or setup
-		/**
-		 * -> given(employeeRepository.save(employee)).willReturn(employee); <-
-		 *
-		 * Typically, stubbing argument mismatch indicates user mistake when writing tests.
-		 * Mockito fails early so that you can debug potential problem easily.
-		 * However, there are legit scenarios when this exception generates false negative signal:
-		 *   - stubbing the same method multiple times using 'given().will()' or 'when().then()' API
-		 *     Please use 'will().given()' or 'doReturn().when()' API for stubbing.
-		 *   - stubbed method is intentionally invoked with different arguments by code under test
-		 *     Please use default or 'silent' JUnit Rule (equivalent of Strictness.LENIENT).
-		 * For more information see javadoc for PotentialStubbingProblem class.
-		 *
-		 * 이 에러 메시지에서는 strict stubbing argument mismatch 문제가 발생했다는 것을 알려주고 있다.
-		 * 이 문제를 해결하기 위해서는 given().will() 대신 will().given() 또는 doReturn().when() API를 사용해야 한다.
-		 *
-		 * 그리고 해당 에러 메시지에서는 stubbed method is intentionally invoked with different arguments by code under test
-		 * 라는 메시지도 함께 보여주고 있다.
-		 * 이 메시지는 테스트 대상 코드에서 의도적으로 다른 매개변수를 사용하여 스텁된 메서드를 호출한 것으로 보인다.
-		 *
-		 * 따라서, updateEmployee() 메서드에서 updatedEmployee 매개변수를 사용하여 employeeRepository.save() 메서드를 호출하므로,
-		 * 해당 매개변수를 사용하여 스텁을 설정해야 한다.
-		 *
-		 * 따라서, 다음과 같이 employeeRepository.save() 메서드에 대한 스텁을 설정하면 된다.
-		 */
-		// any(): Employee 클래스와 일치하는 어떤 객체도 매개변수로 받아들일 수 있도록 한다.
-		// willAnswer(): 주어진 Answer를 사용하여 메서드를 호출할 때 결과를 반환하도록 설정한다.
-		// invocation.getArgument(0): save() 메소드의 첫 번째 매개변수를 반환하는 코드.
-		// updateEmployee() 메서드에서 employeeRepository.save() 메서드를 호출할 때 전달된 Employee 객체가 반환되도록 설정.
-		given(employeeRepository.save(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
-
+	void givenEmployeeObject_whenUpdateEmployee_thenUpdateWithSingleStatement() throws Exception {
+		// given - precondition or setup
 		Employee updatedEmployee = Employee.builder()
 			.firstName("Tim")
 			.lastName("Cook")
 			.email("Tim@apple.com")
 			.build();
+		given(employeeRepository.updateById(1L, "Tim", "Cook", "Tim@apple.com", "apple.com")).willReturn(1);
+
+		// when - action or the behaviour that we are going test
+		employeeService.updateEmployee(1L, updatedEmployee, null);
+
+		// then - verify the output
+		verify(employeeRepository, never()).findById(any());
+		verify(employeeRepository, never()).save(any(Employee.class));
+		verify(eventPublisher, times(1)).publishEvent(new EmployeeChangesRecordedEvent());
+	}
+
+	@Test
+	@DisplayName("JUnit test for updateEmployee method (negative scenario - no such employee)")
+	void givenInvalidEmployeeId_whenUpdateEmployee_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.updateById(1L, "Tim", null, null, null)).willReturn(0);
 
 		// when - action or the behaviour that we are going test
-		Employee result = employeeService.updateEmployee(updatedEmployee);
+		assertThrows(ResourceNotFoundException.class, () -> {
+			employeeService.updateEmployee(1L, Employee.builder().firstName("Tim").build(), null);
+		});
 
 		// then - verify the output
-		assertThat(result.getEmail()).isEqualTo("Tim@apple.com");
-		assertThat(result.getFirstName()).isEqualTo("Tim");
+		verify(employeeRepository, never()).existsById(any());
+		verify(changeRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	@DisplayName("JUnit test for updateEmployee method (negative scenario - stale version)")
+	void givenStaleVersion_whenUpdateEmployee_thenThrowsException() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.updateByIdAndVersion(1L, 3L, "Tim", null, null, null)).willReturn(0);
+		given(employeeRepository.existsById(1L)).willReturn(true);
+
+		// when - action or the behaviour that we are going test
+		// then - verify the output
+		assertThrows(OptimisticLockingFailureException.class, () -> {
+			employeeService.updateEmployee(1L, Employee.builder().firstName("Tim").build(), 3L);
+		});
 	}
 
 	@Test
@@ -181,12 +355,101 @@ class EmployeeServiceTest {
 		// given - precondition or setup
 		long employeeId = 1L;
 
-		willDoNothing().given(employeeRepository).deleteById(employeeId);
+		given(employeeRepository.deleteByIdIn(List.of(employeeId))).willReturn(1);
 
 		// when - action or the behaviour that we are going test
 		employeeService.deleteEmployee(employeeId);
 
 		// then - verify the output
-		verify(employeeRepository, times(1)).deleteById(employeeId);
+		// deleteById 의 SELECT + DELETE 대신 단일 DELETE 문을 실행한다.
+		verify(employeeRepository, times(1)).deleteByIdIn(List.of(employeeId));
+		verify(employeeRepository, never()).deleteById(any());
+		verify(changeRepository, times(1)).saveAll(anyList());
+		// 테이블 변경 카운터는 커밋 뒤 EmployeeChangeSequencer 가 올리므로 쓰기 트랜잭션에서는 건드리지 않는다.
+		verify(tableVersionRepository, never()).increment();
+	}
+
+	@Test
+	@DisplayName("JUnit test for deleteEmployees method in soft delete mode")
+	void givenSoftDelete_whenDeleteEmployees_thenMarkDeletedWithSingleStatement() throws Exception {
+		// given - precondition or setup
+		ReflectionTestUtils.setField(employeeService, "softDelete", true);
+		EmployeeSearchCondition condition = new EmployeeSearchCondition(null, null, "gmail.com");
+		given(employeeRepository.findIdsMatching(condition, 0L, 1000)).willReturn(List.of(1L, 2L));
+		given(employeeRepository.softDeleteByIdIn(eq(List.of(1L, 2L)), any(Instant.class))).willReturn(2);
+
+		// when - action or the behaviour that we are going test
+		int deleted = employeeService.deleteEmployees(condition);
+
+		// then - verify the output
+		assertThat(deleted).isEqualTo(2);
+		verify(employeeRepository, never()).deleteByIdIn(any());
+		// 한 페이지가 가득 차지 않았으므로 다음 페이지를 읽지 않는다.
+		verify(employeeRepository, times(1)).findIdsMatching(eq(condition), anyLong(), anyInt());
+	}
+
+	@Test
+	@DisplayName("JUnit test for deleteEmployees method paging through matching ids")
+	void givenMoreMatchesThanPage_whenDeleteEmployees_thenDeletePageByPage() throws Exception {
+		// given - precondition or setup
+		EmployeeSearchCondition condition = new EmployeeSearchCondition(null, null, "gmail.com");
+		List<Long> firstPage = LongStream.rangeClosed(1, 1000).boxed().toList();
+		given(employeeRepository.findIdsMatching(condition, 0L, 1000)).willReturn(firstPage);
+		given(employeeRepository.findIdsMatching(condition, 1000L, 1000)).willReturn(List.of(1001L));
+		given(employeeRepository.deleteByIdIn(firstPage)).willReturn(1000);
+		given(employeeRepository.deleteByIdIn(List.of(1001L))).willReturn(1);
+
+		// when - action or the behaviour that we are going test
+		int deleted = employeeService.deleteEmployees(condition);
+
+		// then - verify the output
+		assertThat(deleted).isEqualTo(1001);
+		verify(changeRepository, times(2)).saveAll(anyList());
+	}
+
+	@Test
+	@DisplayName("JUnit test for deleteEmployees method records only deleted ids")
+	@SuppressWarnings("unchecked")
+	void givenMissingIds_whenDeleteEmployees_thenRecordOnlyDeletedIds() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.lockExistingIds(List.of(1L, 2L, 3L))).willReturn(List.of(1L, 3L));
+		given(employeeRepository.deleteByIdIn(List.of(1L, 3L))).willReturn(2);
+
+		// when - action or the behaviour that we are going test
+		int deleted = employeeService.deleteEmployees(List.of(1L, 2L, 3L));
+
+		// then - verify the output
+		assertThat(deleted).isEqualTo(2);
+		ArgumentCaptor<List<EmployeeChange>> changes = ArgumentCaptor.forClass(List.class);
+		verify(changeRepository, times(1)).saveAll(changes.capture());
+		assertThat(changes.getValue()).extracting(EmployeeChange::getEmployeeId).containsExactly(1L, 3L);
+	}
+
+	@Test
+	@DisplayName("JUnit test for saveEmployee method records a change")
+	@SuppressWarnings("unchecked")
+	void givenEmployeeObject_whenSaveEmployee_thenRecordCreatedChange() throws Exception {
+		// given - precondition or setup
+		given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+		// when - action or the behaviour that we are going test
+		employeeService.saveEmployee(employee);
+
+		// then - verify the output
+		// sequence 는 커밋 뒤 EmployeeChangeSequencer 가 매긴다.
+		ArgumentCaptor<List<EmployeeChange>> changes = ArgumentCaptor.forClass(List.class);
+		verify(changeRepository, times(1)).saveAll(changes.capture());
+		assertThat(changes.getValue()).singleElement().satisfies(change -> {
+			assertThat(change.getSequence()).isNull();
+			assertThat(change.getEmployeeId()).isEqualTo(employee.getId());
+			assertThat(change.getType()).isEqualTo(EmployeeChange.Type.CREATED);
+		});
+		verify(eventPublisher, times(1)).publishEvent(new EmployeeChangesRecordedEvent());
+		verify(tableVersionRepository, never()).increment();
+	}
+
+	private static DataIntegrityViolationException duplicateEmailViolation() {
+		return new DataIntegrityViolationException("duplicate",
+			new ConstraintViolationException("duplicate", new SQLException(), "employees." + Employee.EMAIL_UNIQUE_CONSTRAINT));
 	}
 }
@@ -0,0 +1,75 @@
+package io.jaeyeon.springboottesting.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jaeyeon.springboottesting.dto.EmployeeView;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSnapshotServiceTest {
+
+	@Mock private EmployeeService employeeService;
+	private ObjectMapper objectMapper;
+	private EmployeeSnapshotService snapshotService;
+
+	private final EmployeeView employee = new EmployeeView(1L, "Jaeyeon", "Cho", "cjyeon1022@gmail.com", 0L);
+
+	@BeforeEach
+	void setup() {
+		objectMapper = new ObjectMapper();
+		snapshotService = new EmployeeSnapshotService(employeeService, objectMapper);
+		willAnswer(invocation -> {
+			Consumer<EmployeeView> consumer = invocation.getArgument(0);
+			consumer.accept(employee);
+			return null;
+		}).given(employeeService).streamEmployees(any());
+	}
+
+	@Test
+	@DisplayName("JUnit test for getSnapshot method returning gzipped NDJSON")
+	void givenEmployees_whenGetSnapshot_thenReturnGzippedNdjson() throws Exception {
+		// given - precondition or setup
+		given(employeeService.getTableVersion()).willReturn(3L);
+
+		// when - action or the behaviour that we are going test
+		EmployeeSnapshotService.Snapshot snapshot = snapshotService.getSnapshot();
+
+		// then - verify the output
+		assertThat(snapshot.tableVersion()).isEqualTo(3L);
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzippedNdjson()))) {
+			assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8))
+				.isEqualTo(objectMapper.writeValueAsString(employee) + "\n");
+		}
+	}
+
+	@Test
+	@DisplayName("JUnit test for getSnapshot method reusing snapshot until the table changes")
+	void givenUnchangedTable_whenGetSnapshot_thenBuildOnce() throws Exception {
+		// given - precondition or setup
+		given(employeeService.getTableVersion()).willReturn(3L, 3L, 4L);
+
+		// when - action or the behaviour that we are going test
+		EmployeeSnapshotService.Snapshot first = snapshotService.getSnapshot();
+		EmployeeSnapshotService.Snapshot second = snapshotService.getSnapshot();
+		EmployeeSnapshotService.Snapshot third = snapshotService.getSnapshot();
+
+		// then - verify the output
+		assertThat(second).isSameAs(first);
+		assertThat(third.tableVersion()).isEqualTo(4L);
+		verify(employeeService, times(2)).streamEmployees(any());
+	}
+}